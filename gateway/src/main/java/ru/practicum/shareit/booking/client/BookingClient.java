@@ -11,6 +11,7 @@ import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.List;
 import java.util.Map;
 
 
@@ -39,6 +40,18 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> getBookingsAfter(Long userId,
+                                                   BookingState state,
+                                                   String cursor,
+                                                   Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
     public ResponseEntity<Object> getOwnerBookings(Long userId,
                                                    BookingState state,
                                                    Integer from,
@@ -51,11 +64,31 @@ public class BookingClient extends BaseClient {
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> getOwnerBookingsAfter(Long userId,
+                                                        BookingState state,
+                                                        String cursor,
+                                                        Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
     public ResponseEntity<Object> createBooking(Long userId,
                                                 BookingRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
+    public ResponseEntity<Object> getBookings(Long userId,
+                                              List<Long> ids) {
+        Map<String, Object> parameters = Map.of(
+                "ids", joinIds(ids)
+        );
+        return get("?ids={ids}", userId, parameters);
+    }
+
     public ResponseEntity<Object> getBooking(Long userId,
                                              Long bookingId) {
         return get("/" + bookingId, userId);
@@ -63,9 +96,10 @@ public class BookingClient extends BaseClient {
 
     public ResponseEntity<Object> approveBooking(Integer bookingId,
                                                  Boolean approved,
-                                                 Long userId) {
+                                                 Long userId,
+                                                 String ifMatch) {
         Map<String, Object> parameters = Map.of("approved", approved);
         String path = "/" + bookingId + "?approved={approved}";
-        return patch(path, userId, parameters, null);
+        return patch(path, userId, parameters, null, ifMatch);
     }
 }
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -14,6 +15,8 @@ import ru.practicum.shareit.booking.client.BookingClient;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import java.util.List;
+
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -28,9 +31,12 @@ public class BookingController {
     public ResponseEntity<Object> getOwnerBookings(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
                                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                   @RequestHeader(HEADER_SHARER_USER_ID) Long userId) {
+                                                   @RequestHeader(HEADER_SHARER_USER_ID) Long userId,
+                                                   @RequestParam(required = false) String cursor) {
         var state = BookingState.from(stateParam).orElseThrow(
                 () -> new IllegalArgumentException("Unknown state: " + stateParam));
+        if (cursor != null)
+            return bookingClient.getOwnerBookingsAfter(userId, state, cursor, size);
         return bookingClient.getOwnerBookings(userId, state, from, size);
     }
 
@@ -38,17 +44,21 @@ public class BookingController {
     public ResponseEntity<Object> getBookings(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
                                               @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                              @RequestHeader(HEADER_SHARER_USER_ID) Long userId) {
+                                              @RequestHeader(HEADER_SHARER_USER_ID) Long userId,
+                                              @RequestParam(required = false) String cursor) {
         var state = BookingState.from(stateParam).orElseThrow(
                 () -> new IllegalArgumentException("Unknown state: " + stateParam));
+        if (cursor != null)
+            return bookingClient.getBookingsAfter(userId, state, cursor, size);
         return bookingClient.getBookings(userId, state, from, size);
     }
 
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approveBooking(@RequestHeader(value = HEADER_SHARER_USER_ID) Long userId,
+                                                 @RequestHeader(required = false, value = HttpHeaders.IF_MATCH) String ifMatch,
                                                  @RequestParam(required = false) Boolean approved,
                                                  @PathVariable Integer bookingId) {
-        return bookingClient.approveBooking(bookingId, approved, userId);
+        return bookingClient.approveBooking(bookingId, approved, userId, ifMatch);
     }
 
     @Validated
@@ -60,6 +70,12 @@ public class BookingController {
         return bookingClient.createBooking(userId, requestDto);
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getBookingsByIds(@RequestHeader(HEADER_SHARER_USER_ID) Long userId,
+                                                   @RequestParam List<Long> ids) {
+        return bookingClient.getBookings(userId, ids);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(@RequestHeader(HEADER_SHARER_USER_ID) Long userId,
                                              @PathVariable Long bookingId) {
@@ -7,6 +7,7 @@ import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 public class BaseClient {
     protected final RestTemplate rest;
@@ -60,7 +61,17 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+        return patch(path, userId, parameters, body, null);
+    }
+
+    // ifMatch — версия из ETag для условного обновления на сервере
+    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body,
+                                               @Nullable String ifMatch) {
+        var headers = defaultHeaders(userId);
+        if (ifMatch != null) {
+            headers.setIfMatch(ifMatch);
+        }
+        return makeAndSendRequest(HttpMethod.PATCH, path, headers, parameters, body);
     }
 
     protected ResponseEntity<Object> delete(String path) {
@@ -76,7 +87,11 @@ public class BaseClient {
     }
 
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        return makeAndSendRequest(method, path, defaultHeaders(userId), parameters, body);
+    }
+
+    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
 
         ResponseEntity<Object> shareitServerResponse;
         try {
@@ -101,6 +116,12 @@ public class BaseClient {
         return headers;
     }
 
+    protected static String joinIds(List<Long> ids) {
+        return ids.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+
     private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
         if (response.getStatusCode().is2xxSuccessful()) {
             return response;
@@ -11,6 +11,7 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -39,6 +40,18 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> searchItemsAfter(String text,
+                                                   Long userId,
+                                                   String cursor,
+                                                   Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/search?text={text}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
     public ResponseEntity<Object> createComment(CommentDto commentDto,
                                                 Long itemId,
                                                 Long userId) {
@@ -47,8 +60,9 @@ public class ItemClient extends BaseClient {
 
     public ResponseEntity<Object> updateItem(ItemDto itemDto,
                                              Long itemId,
-                                             Long userId) {
-        return patch("/" + itemId, userId, itemDto);
+                                             Long userId,
+                                             String ifMatch) {
+        return patch("/" + itemId, userId, null, itemDto, ifMatch);
     }
 
     public ResponseEntity<Object> getItems(Long userId,
@@ -61,11 +75,34 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> getItemsAfter(Long userId,
+                                                String cursor,
+                                                Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?cursor={cursor}&size={size}", userId, parameters);
+    }
+
     public ResponseEntity<Object> createItem(ItemDto itemDto,
                                              Long userId) {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> createItems(List<ItemDto> itemDtos,
+                                              Long userId) {
+        return post("/batch", userId, itemDtos);
+    }
+
+    public ResponseEntity<Object> getItems(List<Long> ids,
+                                           Long userId) {
+        Map<String, Object> parameters = Map.of(
+                "ids", joinIds(ids)
+        );
+        return get("?ids={ids}", userId, parameters);
+    }
+
     public ResponseEntity<Object> getItem(Long itemId,
                                           Long userId) {
         return get("/" + itemId, userId);
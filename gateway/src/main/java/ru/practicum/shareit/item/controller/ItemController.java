@@ -6,6 +6,7 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -14,6 +15,8 @@ import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.util.List;
+
 
 @Controller
 @RequestMapping("/items")
@@ -27,22 +30,35 @@ public class ItemController {
     public ResponseEntity<Object> searchItems(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                               @RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
-                                              @NotNull @RequestParam(required = false) String text) {
+                                              @NotNull @RequestParam(required = false) String text,
+                                              @RequestParam(required = false) String cursor) {
+        if (cursor != null)
+            return itemClient.searchItemsAfter(text, userId, cursor, size);
         return itemClient.searchItems(text, userId, from, size);
     }
 
     @GetMapping()
     public ResponseEntity<Object> getAllItems(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                               @RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                              @RequestParam(required = false) String cursor) {
+        if (cursor != null)
+            return itemClient.getItemsAfter(userId, cursor, size);
         return itemClient.getItems(userId, from, size);
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getItems(@RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
+                                           @RequestParam List<Long> ids) {
+        return itemClient.getItems(ids, userId);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> updateItem(@RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
+                                             @RequestHeader(required = false, value = HttpHeaders.IF_MATCH) String ifMatch,
                                              @RequestBody ItemDto itemDto,
                                              @PathVariable Long itemId) {
-        return itemClient.updateItem(itemDto, itemId, userId);
+        return itemClient.updateItem(itemDto, itemId, userId, ifMatch);
     }
 
     @PostMapping()
@@ -52,6 +68,12 @@ public class ItemController {
         return itemClient.createItem(itemDto, userId);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createItems(@RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
+                                              @RequestBody List<ItemDto> itemDtos) {
+        return itemClient.createItems(itemDtos, userId);
+    }
+
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItem(@RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
                                           @PathVariable Long itemId) {
@@ -10,6 +10,9 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
+import java.util.Map;
+
 
 @Service
 public class UserClient extends BaseClient {
@@ -40,6 +43,13 @@ public class UserClient extends BaseClient {
         return get("");
     }
 
+    public ResponseEntity<Object> getUsers(List<Long> ids) {
+        Map<String, Object> parameters = Map.of(
+                "ids", joinIds(ids)
+        );
+        return get("?ids={ids}", null, parameters);
+    }
+
     public void deleteUser(Long userId) {
         delete("/" + userId);
     }
@@ -10,6 +10,8 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.client.UserClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
+
 
 @Slf4j
 @Validated
@@ -46,4 +48,9 @@ public class UserController {
     public ResponseEntity<Object> getAllUsers() {
         return userClient.getUsers();
     }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getUsers(@RequestParam List<Long> ids) {
+        return userClient.getUsers(ids);
+    }
 }
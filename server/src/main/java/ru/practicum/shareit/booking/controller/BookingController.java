@@ -2,8 +2,11 @@
 package ru.practicum.shareit.booking.controller;
 
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
 import ru.practicum.shareit.booking.dto.BookingSavingDto;
@@ -11,6 +14,9 @@ import ru.practicum.shareit.booking.enums.BookingTimeState;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.utils.CursorPage;
+import ru.practicum.shareit.utils.ETags;
+import ru.practicum.shareit.utils.StreamingResponses;
 
 import java.util.List;
 
@@ -20,8 +26,10 @@ import java.util.List;
 @RequestMapping("/bookings")
 public class BookingController {
     private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
     private final BookingService bookingService;
     private final ItemService itemService;
+    private final StreamingResponses streamingResponses;
 
     @PostMapping()
     public BookingAllFieldsDto save(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
@@ -37,32 +45,68 @@ public class BookingController {
     }
 
     @PatchMapping("/{bookingId}")
-    public BookingAllFieldsDto approve(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
-                                       @RequestParam(required = false) boolean approved,
-                                       @PathVariable Long bookingId) {
-        return bookingService.approve(bookingId, approved, userId);
+    public ResponseEntity<BookingAllFieldsDto> approve(
+            @RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestParam(required = false) boolean approved,
+            @PathVariable Long bookingId) {
+        var booking = bookingService.approve(bookingId, approved, userId, ETags.parseIfMatch(ifMatch));
+        return ETags.ok(booking, booking.getVersion());
     }
 
     @GetMapping("/owner")
-    public List<BookingAllFieldsDto> getBookingsByOwner(
+    public ResponseEntity<List<BookingAllFieldsDto>> getBookingsByOwner(
             @RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
             @RequestParam(required = false) BookingTimeState state,
             @RequestParam(required = false) Integer from,
-            @RequestParam(required = false) Integer size) {
-        return bookingService.getBookingsByOwnerId(userId, state, from, size);
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            HttpServletResponse response) {
+        if (cursor != null)
+            return toResponse(bookingService.getBookingsByOwnerIdAfter(userId, state, cursor, size));
+        if (streamingResponses.applies(from, size)) {
+            streamingResponses.write(bookingService.streamBookingsByOwnerId(userId, state), response);
+            return null;
+        }
+        return ResponseEntity.ok(bookingService.getBookingsByOwnerId(userId, state, from, size));
     }
 
     @GetMapping()
-    public List<BookingAllFieldsDto> getBookings(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
-                                                 @RequestParam(required = false) String state,
-                                                 @RequestParam(required = false) Integer from,
-                                                 @RequestParam(required = false) Integer size) {
-        return bookingService.getAllBookings(userId, state, from, size);
+    public ResponseEntity<List<BookingAllFieldsDto>> getBookings(
+            @RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) Integer from,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            HttpServletResponse response) {
+        if (cursor != null)
+            return toResponse(bookingService.getAllBookingsAfter(userId, state, cursor, size));
+        if (streamingResponses.applies(from, size)) {
+            streamingResponses.write(bookingService.streamAllBookings(userId, state), response);
+            return null;
+        }
+        return ResponseEntity.ok(bookingService.getAllBookings(userId, state, from, size));
+    }
+
+    @GetMapping(params = "ids")
+    public List<BookingAllFieldsDto> getBookingsByIds(
+            @RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
+            @RequestParam List<Long> ids) {
+        return bookingService.getBookingsByIds(ids, userId);
     }
 
     @GetMapping("/{bookingId}")
-    public BookingAllFieldsDto get(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
-                                   @PathVariable Long bookingId) {
-        return bookingService.getBookingById(bookingId, userId);
+    public ResponseEntity<BookingAllFieldsDto> get(
+            @RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
+            @PathVariable Long bookingId) {
+        var booking = bookingService.getBookingById(bookingId, userId);
+        return ETags.ok(booking, booking.getVersion());
+    }
+
+    private static <T> ResponseEntity<List<T>> toResponse(CursorPage<T> page) {
+        var response = ResponseEntity.ok();
+        if (page.getNextCursor() != null)
+            response.header(HEADER_NEXT_CURSOR, page.getNextCursor());
+        return response.body(page.getContent());
     }
 }
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -18,4 +20,8 @@ public class BookingAllFieldsDto {
     private ItemDto item;
     private UserDto booker;
     private String status;
+    // версия строки для ETag и условного PATCH, в теле не передается
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class ItemBookingSummaryDto {
+    private Long itemId;
+    private BookingDto lastBooking;
+    private BookingDto nextBooking;
+}
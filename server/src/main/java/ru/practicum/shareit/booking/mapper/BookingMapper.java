@@ -2,18 +2,25 @@ package ru.practicum.shareit.booking.mapper;
 
 
 import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingSavingDto;
+import ru.practicum.shareit.booking.dto.ItemBookingSummaryDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
+import static java.time.temporal.ChronoUnit.MICROS;
+
 
 public class BookingMapper {
 
+    // TIMESTAMP хранит микросекунды: без обрезки сохраненная сущность отличается от прочитанной из базы
+    // и ключ курсора (start, id) перестает совпадать
     public static Booking mapToBooking(BookingSavingDto bookingDto) {
         return Booking.builder()
-                .start(bookingDto.getStart())
-                .end(bookingDto.getEnd())
+                .start(bookingDto.getStart().truncatedTo(MICROS))
+                .end(bookingDto.getEnd().truncatedTo(MICROS))
                 .build();
     }
 
@@ -25,6 +32,19 @@ public class BookingMapper {
                 .item(booking.getItem() != null ? ItemMapper.mapToItemDto(booking.getItem()) : null)
                 .booker(booking.getBooker() != null ? UserMapper.mapToUserDto(booking.getBooker()) : null)
                 .status(booking.getStatus().name())
+                .version(booking.getVersion())
+                .build();
+    }
+
+    public static ItemBookingSummaryDto mapToItemBookingSummaryDto(ItemBookingSummary summary) {
+        return ItemBookingSummaryDto.builder()
+                .itemId(summary.getItemId())
+                .lastBooking(summary.getLastBookingId() != null
+                        ? new BookingDto(summary.getLastBookingId(), summary.getLastBookerId())
+                        : null)
+                .nextBooking(summary.getNextBookingId() != null
+                        ? new BookingDto(summary.getNextBookingId(), summary.getNextBookerId())
+                        : null)
                 .build();
     }
 }
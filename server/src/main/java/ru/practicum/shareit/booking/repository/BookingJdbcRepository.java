@@ -0,0 +1,167 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.error.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utils.DatabasePlatform;
+import ru.practicum.shareit.utils.RowStream;
+import ru.practicum.shareit.utils.RowStreams;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static java.time.LocalDateTime.now;
+import static ru.practicum.shareit.booking.enums.BookingState.WAITING;
+import static ru.practicum.shareit.booking.enums.BookingTimeState.*;
+
+/**
+ * Списки бронирований без сущностей: одна выборка с JOIN, строки сразу в BookingAllFieldsDto.
+ * Условия и порядок совпадают с запросами BookingRepository.
+ * Здесь же смена статуса одним условным UPDATE — мимо контекста Hibernate, как и чтение.
+ */
+@Repository
+public class BookingJdbcRepository {
+    private static final String COLUMNS = "SELECT booking.id, booking.start_date, booking.end_date, booking.status, " +
+            "booking.version, " +
+            "item.id AS item_id, item.name AS item_name, item.description AS item_description, " +
+            "item.available AS item_available, item.owner_id AS item_owner_id, item.request_id AS item_request_id, " +
+            "booker.id AS booker_id, booker.name AS booker_name, booker.email AS booker_email ";
+    private static final String JOINS = "JOIN items item ON item.id = booking.item_id " +
+            "JOIN users booker ON booker.id = booking.booker_id ";
+    private static final String SELECT_QUERY = COLUMNS + "FROM bookings booking " + JOINS;
+    private static final String UPDATE_STATUS_QUERY = "UPDATE bookings SET status = :status, version = version + 1 " +
+            "WHERE id = :bookingId AND status = :waiting " +
+            "AND item_id IN (SELECT id FROM items WHERE owner_id = :ownerId)";
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final RowStreams rowStreams;
+    private final boolean postgres;
+
+    public BookingJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                 RowStreams rowStreams,
+                                 DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rowStreams = rowStreams;
+        this.postgres = databasePlatform.isPostgres();
+    }
+
+    /**
+     * Меняет статус, только если бронь ждет решения, вещь принадлежит ownerId и, если задана,
+     * версия совпадает. Пустой результат — ни одна строка не изменилась, причину выясняет вызывающий.
+     * На PostgreSQL измененная строка вместе с вещью и арендатором возвращается тем же запросом
+     * (RETURNING в CTE), в остальных БД — по числу строк и отдельной выборкой.
+     */
+    public Optional<BookingAllFieldsDto> updateStatusIfWaiting(Long bookingId, Long ownerId,
+                                                               BookingState status, Long expectedVersion) {
+        var parameters = new MapSqlParameterSource("bookingId", bookingId)
+                .addValue("ownerId", ownerId)
+                .addValue("status", status.name())
+                .addValue("waiting", WAITING.name());
+        var update = UPDATE_STATUS_QUERY;
+        if (expectedVersion != null) {
+            update += " AND version = :version";
+            parameters.addValue("version", expectedVersion);
+        }
+        if (postgres)
+            return jdbcTemplate.query("WITH booking AS (" + update + " RETURNING *) " + COLUMNS + "FROM booking " + JOINS,
+                            parameters, BookingJdbcRepository::mapRow)
+                    .stream()
+                    .findFirst();
+        if (jdbcTemplate.update(update, parameters) == 0)
+            return Optional.empty();
+        return jdbcTemplate.query(SELECT_QUERY + "WHERE booking.id = :bookingId", parameters,
+                        BookingJdbcRepository::mapRow)
+                .stream()
+                .findFirst();
+    }
+
+    public List<BookingAllFieldsDto> findByBooker(Long bookerId, String state, PageRequest pageRequest) {
+        return find("booking.booker_id = :userId", bookerId, state, pageRequest);
+    }
+
+    public List<BookingAllFieldsDto> findByItemOwner(Long ownerId, String state, PageRequest pageRequest) {
+        return find("item.owner_id = :userId", ownerId, state, pageRequest);
+    }
+
+    public RowStream<BookingAllFieldsDto> streamByBooker(Long bookerId, String state) {
+        return stream("booking.booker_id = :userId", bookerId, state);
+    }
+
+    public RowStream<BookingAllFieldsDto> streamByItemOwner(Long ownerId, String state) {
+        return stream("item.owner_id = :userId", ownerId, state);
+    }
+
+    private List<BookingAllFieldsDto> find(String userCondition, Long userId, String state, PageRequest pageRequest) {
+        var parameters = new MapSqlParameterSource("userId", userId);
+        var sql = new StringBuilder(query(userCondition, state, parameters));
+        if (pageRequest != null) {
+            sql.append(" LIMIT :limit OFFSET :offset");
+            parameters.addValue("limit", pageRequest.getPageSize())
+                    .addValue("offset", pageRequest.getOffset());
+        }
+        return jdbcTemplate.query(sql.toString(), parameters, BookingJdbcRepository::mapRow);
+    }
+
+    // Запрос и статус проверяются сразу, а читаются строки позже, при записи ответа
+    private RowStream<BookingAllFieldsDto> stream(String userCondition, Long userId, String state) {
+        var parameters = new MapSqlParameterSource("userId", userId);
+        return rowStreams.query(query(userCondition, state, parameters), parameters, BookingJdbcRepository::mapRow);
+    }
+
+    private static String query(String userCondition, String state, MapSqlParameterSource parameters) {
+        return SELECT_QUERY + "WHERE " + userCondition + stateCondition(state, parameters) +
+                " ORDER BY booking.start_date DESC";
+    }
+
+    private static String stateCondition(String state, MapSqlParameterSource parameters) {
+        if (state == null || ALL.name().equals(state))
+            return "";
+        if (PAST.name().equals(state)) {
+            parameters.addValue("now", now());
+            return " AND booking.end_date < :now";
+        }
+        if (CURRENT.name().equals(state)) {
+            parameters.addValue("now", now());
+            return " AND booking.start_date < :now AND booking.end_date > :now";
+        }
+        if (FUTURE.name().equals(state)) {
+            parameters.addValue("now", now());
+            return " AND booking.start_date > :now";
+        }
+        if (Arrays.stream(BookingState.values()).anyMatch(bookingState -> bookingState.name().equals(state))) {
+            parameters.addValue("status", state);
+            return " AND booking.status = :status";
+        }
+        throw new ValidationException("Неизвестный статус: " + state);
+    }
+
+    private static BookingAllFieldsDto mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+        return BookingAllFieldsDto.builder()
+                .id(resultSet.getLong("id"))
+                .start(resultSet.getObject("start_date", LocalDateTime.class))
+                .end(resultSet.getObject("end_date", LocalDateTime.class))
+                .item(new ItemDto(
+                        resultSet.getLong("item_id"),
+                        resultSet.getString("item_name"),
+                        resultSet.getString("item_description"),
+                        resultSet.getBoolean("item_available"),
+                        resultSet.getObject("item_owner_id", Long.class),
+                        resultSet.getObject("item_request_id", Long.class)))
+                .booker(new UserDto(
+                        resultSet.getLong("booker_id"),
+                        resultSet.getString("booker_name"),
+                        resultSet.getString("booker_email")))
+                .status(resultSet.getString("status"))
+                .version(resultSet.getLong("version"))
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+
+/**
+ * Замена ограничения исключения excl_bookings_item_period для H2: не дает одобрить бронь, пересекающуюся
+ * с другой одобренной бронью той же вещи. Строка вещи блокируется, поэтому одновременные одобрения
+ * одной вещи проверяются по очереди. Ошибка отдается с тем же SQLState, что и в PostgreSQL.
+ */
+public class BookingOverlapTrigger implements Trigger {
+    public static final String EXCLUSION_VIOLATION = "23P01";
+    private int id;
+    private int start;
+    private int end;
+    private int itemId;
+    private int status;
+
+    @Override
+    public void init(Connection connection, String schemaName, String triggerName, String tableName,
+                     boolean before, int type) throws SQLException {
+        Map<String, Integer> columns = new HashMap<>();
+        try (var resultSet = connection.getMetaData().getColumns(null, schemaName, tableName, null)) {
+            while (resultSet.next())
+                columns.put(resultSet.getString("COLUMN_NAME").toLowerCase(), resultSet.getInt("ORDINAL_POSITION") - 1);
+        }
+        id = columns.get("id");
+        start = columns.get("start_date");
+        end = columns.get("end_date");
+        itemId = columns.get("item_id");
+        status = columns.get("status");
+    }
+
+    @Override
+    public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+        if (newRow == null || !APPROVED.name().equals(newRow[status]))
+            return;
+        try (var statement = connection.prepareStatement("SELECT id FROM items WHERE id = ? FOR UPDATE")) {
+            statement.setObject(1, newRow[itemId]);
+            statement.executeQuery().close();
+        }
+        try (var statement = connection.prepareStatement("SELECT 1 FROM bookings " +
+                "WHERE item_id = ? AND status = ? AND id <> ? AND start_date < ? AND end_date > ?")) {
+            statement.setObject(1, newRow[itemId]);
+            statement.setString(2, APPROVED.name());
+            statement.setObject(3, newRow[id]);
+            statement.setObject(4, newRow[end]);
+            statement.setObject(5, newRow[start]);
+            try (var resultSet = statement.executeQuery()) {
+                if (resultSet.next())
+                    throw new SQLException("Booking period overlaps an approved booking of item " + newRow[itemId],
+                            EXCLUSION_VIOLATION);
+            }
+        }
+    }
+}
@@ -2,92 +2,157 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
-
-
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
+import java.util.Optional;
+
+
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+    String itemAndBookerGraph = "Booking.itemAndBooker";
+    String lastBookingsQuery = "SELECT booking FROM Booking booking " +
+            "WHERE booking.item.id IN ?1 " +
+            "AND booking.end = (SELECT MAX(other.end) FROM Booking other " +
+            "WHERE other.item.id = booking.item.id AND other.end < ?2)";
+    String nextBookingsQuery = "SELECT booking FROM Booking booking " +
+            "WHERE booking.item.id IN ?1 " +
+            "AND booking.start > ?2 " +
+            "AND booking.end = (SELECT MIN(other.end) FROM Booking other " +
+            "WHERE other.item.id = booking.item.id AND other.start > ?2)";
+
+    @Query(lastBookingsQuery)
+    List<Booking> findLastBookingsByItemIds(List<Long> itemIds, LocalDateTime now);
+
+    @Query(nextBookingsQuery)
+    List<Booking> findNextBookingsByItemIds(List<Long> itemIds, LocalDateTime now);
+
+    @Query("SELECT booking.item.id, " +
+            "MIN(CASE WHEN booking.start > ?2 THEN booking.start ELSE booking.end END) " +
+            "FROM Booking booking " +
+            "WHERE booking.item.id IN ?1 AND booking.end >= ?2 " +
+            "GROUP BY booking.item.id")
+    List<Object[]> findNextChangeByItemIds(List<Long> itemIds, LocalDateTime now);
+
+    @Override
+    @EntityGraph(itemAndBookerGraph)
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph(itemAndBookerGraph)
+    List<Booking> findAllById(Iterable<Long> ids);
+
+    @Override
+    @EntityGraph(itemAndBookerGraph)
+    List<Booking> findAll(Specification<Booking> specification);
+
+    @EntityGraph(itemAndBookerGraph)
     List<Booking> findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(User owner,
                                                                                      LocalDateTime startDateTime,
                                                                                      LocalDateTime endDateTime);
 
+    @EntityGraph(itemAndBookerGraph)
     Page<Booking> findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(User owner,
                                                                                      LocalDateTime startDateTime,
                                                                                      LocalDateTime endDateTime,
                                                                                      Pageable pageable);
 
+    @EntityGraph(itemAndBookerGraph)
     List<Booking> findBookingsByItemOwnerAndStartAfterOrderByStartDesc(User owner,
                                                                        LocalDateTime localDateTime);
 
+    @EntityGraph(itemAndBookerGraph)
     Page<Booking> findBookingsByItemOwnerAndStartAfterOrderByStartDesc(User owner,
                                                                        LocalDateTime localDateTime,
                                                                        Pageable pageable);
 
+    @EntityGraph(itemAndBookerGraph)
     List<Booking> findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(User owner,
                                                                       LocalDateTime localDateTime);
 
+    @EntityGraph(itemAndBookerGraph)
     Page<Booking> findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(User owner,
                                                                       LocalDateTime localDateTime,
                                                                       Pageable pageable);
 
+    @EntityGraph(itemAndBookerGraph)
     List<Booking> findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(User owner,
                                                                        BookingState bookingState);
 
+    @EntityGraph(itemAndBookerGraph)
     Page<Booking> findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(User owner,
                                                                        BookingState bookingState,
                                                                        Pageable pageable);
 
+    @EntityGraph(itemAndBookerGraph)
     List<Booking> findBookingsByItem_IdAndItem_Owner_IdIsOrderByStart(Long itemId,
                                                                       Long userId);
 
+    @EntityGraph(itemAndBookerGraph)
     Page<Booking> findBookingsByItemOwnerIsOrderByStartDesc(User owner,
                                                             Pageable pageable);
 
+    @EntityGraph(itemAndBookerGraph)
     List<Booking> findBookingsByItemOwnerIsOrderByStartDesc(User owner);
 
     //for booker
+    @EntityGraph(itemAndBookerGraph)
     List<Booking> findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(User booker,
                                                                                   LocalDateTime startDateTime,
                                                                                   LocalDateTime endDateTime);
 
+    @EntityGraph(itemAndBookerGraph)
     Page<Booking> findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(User booker,
                                                                                   LocalDateTime startDateTime,
                                                                                   LocalDateTime endDateTime,
                                                                                   Pageable pageable);
 
+    @EntityGraph(itemAndBookerGraph)
     List<Booking> findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(User booker,
                                                                         LocalDateTime localDateTime);
 
+    @EntityGraph(itemAndBookerGraph)
     Page<Booking> findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(User booker,
                                                                         LocalDateTime localDateTime,
                                                                         Pageable pageable);
 
+    @EntityGraph(itemAndBookerGraph)
     List<Booking> findBookingsByBookerIsAndEndBeforeOrderByStartDesc(User booker,
                                                                      LocalDateTime localDateTime);
 
+    @EntityGraph(itemAndBookerGraph)
     Page<Booking> findBookingsByBookerIsAndEndBeforeOrderByStartDesc(User booker,
                                                                      LocalDateTime localDateTime,
                                                                      Pageable pageable);
 
-    List<Booking> findBookingsByItem_IdIsAndStatusIsAndEndIsAfter(Long itemId,
-                                                                  BookingState bookingState,
-                                                                  LocalDateTime localDateTime);
+    boolean existsByItem_IdAndStatusAndStartBeforeAndEndAfter(Long itemId,
+                                                             BookingState bookingState,
+                                                             LocalDateTime end,
+                                                             LocalDateTime start);
+
+    @Query("SELECT booking.id, booking.item.id, booking.start, booking.end FROM Booking booking " +
+            "WHERE booking.status = ?1 AND booking.end > ?2")
+    List<Object[]> findIntervals(BookingState bookingState, LocalDateTime endAfter);
 
+    @EntityGraph(itemAndBookerGraph)
     List<Booking> findBookingsByBookerIsAndStatusIsOrderByStartDesc(User booker,
                                                                     BookingState bookingState);
 
+    @EntityGraph(itemAndBookerGraph)
     Page<Booking> findBookingsByBookerIsAndStatusIsOrderByStartDesc(User booker,
                                                                     BookingState bookingState,
                                                                     Pageable pageable);
 
+    @EntityGraph(itemAndBookerGraph)
     Page<Booking> findBookingsByBookerIsOrderByStartDesc(User booker,
                                                          Pageable pageable);
 
+    @EntityGraph(itemAndBookerGraph)
     List<Booking> findBookingsByBookerIsOrderByStartDesc(User booker);
 }
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+public class BookingSpecifications {
+    public static Specification<Booking> all() {
+        return (root, query, builder) -> builder.conjunction();
+    }
+
+    public static Specification<Booking> bookerIs(Long bookerId) {
+        return (root, query, builder) -> builder.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> itemOwnerIs(Long ownerId) {
+        return (root, query, builder) -> builder.equal(root.get("item").get("owner").get("id"), ownerId);
+    }
+
+    public static Specification<Booking> statusIs(BookingState status) {
+        return (root, query, builder) -> builder.equal(root.get("status"), status);
+    }
+
+    public static Specification<Booking> startBefore(LocalDateTime dateTime) {
+        return (root, query, builder) -> builder.lessThan(root.get("start"), dateTime);
+    }
+
+    public static Specification<Booking> startAfter(LocalDateTime dateTime) {
+        return (root, query, builder) -> builder.greaterThan(root.get("start"), dateTime);
+    }
+
+    public static Specification<Booking> endBefore(LocalDateTime dateTime) {
+        return (root, query, builder) -> builder.lessThan(root.get("end"), dateTime);
+    }
+
+    public static Specification<Booking> endAfter(LocalDateTime dateTime) {
+        return (root, query, builder) -> builder.greaterThan(root.get("end"), dateTime);
+    }
+
+    // позиция после (start, id) при сортировке start DESC, id DESC
+    public static Specification<Booking> positionedBefore(LocalDateTime start, Long id) {
+        return (root, query, builder) -> builder.or(
+                builder.lessThan(root.get("start"), start),
+                builder.and(
+                        builder.equal(root.get("start"), start),
+                        builder.lessThan(root.get("id"), id)));
+    }
+}
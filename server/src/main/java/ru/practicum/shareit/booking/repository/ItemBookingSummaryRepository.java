@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Query("SELECT summary.itemId FROM ItemBookingSummary summary " +
+            "WHERE summary.validUntil <= ?1")
+    List<Long> findExpiredItemIds(LocalDateTime now);
+
+    // все вещи, а не только с бронями: без строки сводки каждое чтение вещи пересчитывает ее тремя запросами
+    @Query("SELECT item.id FROM Item item " +
+            "WHERE NOT EXISTS (SELECT summary FROM ItemBookingSummary summary " +
+            "WHERE summary.itemId = item.id)")
+    List<Long> findMissingItemIds();
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.utils.DatabasePlatform;
+
+/**
+ * Блокировки через pg_advisory_xact_lock по id вещи: действуют для всех экземпляров сервера на одной БД
+ * и снимаются самой БД при коммите или откате. Ключ — id вещи, других advisory-блокировок в схеме нет.
+ * На H2 работают блокировки в памяти.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.lock.mode", havingValue = "advisory")
+public class AdvisoryItemLocks extends StripedItemLocks {
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    public AdvisoryItemLocks(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform,
+                             @Value("${shareit.booking.lock.stripes:64}") int stripes) {
+        super(stripes);
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+        if (!databasePlatform.isPostgres())
+            log.warn("Advisory item locks require PostgreSQL, falling back to in-memory locks");
+    }
+
+    @Override
+    public void lock(Long itemId) {
+        if (!databasePlatform.isPostgres()) {
+            super.lock(itemId);
+            return;
+        }
+        // вне транзакции блокировка снялась бы сразу после запроса
+        if (!TransactionSynchronizationManager.isActualTransactionActive())
+            throw new IllegalStateException("Item lock requires an active transaction");
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", resultSet -> {
+        }, itemId);
+    }
+
+    @Override
+    public boolean isClusterWide() {
+        return databasePlatform.isPostgres();
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+
+/**
+ * Одобренные брони по вещам в деревьях интервалов: проверка пересечения при бронировании идет без обращения к БД.
+ * Индекс строится при старте и периодически перестраивается (чтобы подхватить импорт, каскадные удаления
+ * и отбросить закончившиеся брони), а между перестройками пополняется из approve.
+ * Пока индекс не построен, пересечение проверяется запросом.
+ */
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+    private final BookingRepository bookingRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, IntervalTree> trees = new HashMap<>();
+    private List<Consumer<Map<Long, IntervalTree>>> changesDuringRebuild;
+    private volatile boolean ready;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!ready)
+            return bookingRepository.existsByItem_IdAndStatusAndStartBeforeAndEndAfter(itemId, APPROVED, end, start);
+        lock.readLock().lock();
+        try {
+            var tree = trees.get(itemId);
+            return tree != null && tree.overlaps(start, end);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(Long bookingId, Long itemId, LocalDateTime start, LocalDateTime end) {
+        afterCommit(() -> apply(target -> add(target, bookingId, itemId, start, end)));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.interval-index.rebuild-delay:600000}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // новые брони начинаются не раньше сегодняшнего дня, поэтому закончившиеся до него не нужны
+        var rebuilt = new HashMap<Long, IntervalTree>();
+        bookingRepository.findIntervals(APPROVED, LocalDate.now().atStartOfDay()).forEach(row ->
+                add(rebuilt, (Long) row[0], (Long) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3]));
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+            changesDuringRebuild = null;
+            trees = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Booking interval index rebuilt: {} items, {} bookings", rebuilt.size(),
+                rebuilt.values().stream().mapToInt(IntervalTree::size).sum());
+    }
+
+    private void apply(Consumer<Map<Long, IntervalTree>> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(trees);
+            if (changesDuringRebuild != null)
+                changesDuringRebuild.add(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void add(Map<Long, IntervalTree> target, Long bookingId, Long itemId,
+                            LocalDateTime start, LocalDateTime end) {
+        target.computeIfAbsent(itemId, id -> new IntervalTree()).add(bookingId, start, end);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
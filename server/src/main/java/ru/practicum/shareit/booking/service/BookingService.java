@@ -2,8 +2,11 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
 import ru.practicum.shareit.booking.dto.BookingSavingDto;
+import ru.practicum.shareit.booking.dto.ItemBookingSummaryDto;
 import ru.practicum.shareit.booking.enums.BookingTimeState;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
+import ru.practicum.shareit.utils.CursorPage;
+import ru.practicum.shareit.utils.RowStream;
 
 import java.util.List;
 
@@ -14,16 +17,35 @@ public interface BookingService {
 
     BookingAllFieldsDto save(BookingSavingDto booking, ItemAllFieldsDto itemDto, Long bookerId);
 
-    BookingAllFieldsDto approve(Long bookingId, boolean approved, Long userId);
+    default BookingAllFieldsDto approve(Long bookingId, boolean approved, Long userId) {
+        return approve(bookingId, approved, userId, null);
+    }
+
+    // expectedVersion из If-Match: при несовпадении версии статус не меняется
+    BookingAllFieldsDto approve(Long bookingId, boolean approved, Long userId, Long expectedVersion);
 
     List<BookingAllFieldsDto> getBookingsByOwnerId(Long userId, BookingTimeState state, Integer from, Integer size);
 
+    RowStream<BookingAllFieldsDto> streamAllBookings(Long bookerId, String state);
+
+    RowStream<BookingAllFieldsDto> streamBookingsByOwnerId(Long userId, BookingTimeState state);
+
+    CursorPage<BookingAllFieldsDto> getAllBookingsAfter(Long bookerId, String state, String cursor, Integer size);
+
+    CursorPage<BookingAllFieldsDto> getBookingsByOwnerIdAfter(Long userId, BookingTimeState state, String cursor, Integer size);
+
 
     List<BookingAllFieldsDto> getBookingsByItem(Long itemId, Long userId);
 
+    List<ItemBookingSummaryDto> getBookingSummaries(List<Long> itemIds);
+
+    void rolloverBookingSummaries();
+
     List<BookingAllFieldsDto> getAllBookings(Long bookerId, String state);
 
     BookingAllFieldsDto getBookingById(Long bookingId, Long userId);
 
+    List<BookingAllFieldsDto> getBookingsByIds(List<Long> bookingIds, Long userId);
+
 
 }
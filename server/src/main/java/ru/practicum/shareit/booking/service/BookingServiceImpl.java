@@ -3,35 +3,56 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
 import ru.practicum.shareit.booking.dto.BookingSavingDto;
+import ru.practicum.shareit.booking.dto.ItemBookingSummaryDto;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingTimeState;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingJdbcRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.error.ConflictException;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.CursorPage;
+import ru.practicum.shareit.utils.ReadPaths;
+import ru.practicum.shareit.utils.RowStream;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import static java.time.LocalDateTime.now;
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 import static ru.practicum.shareit.booking.enums.BookingState.*;
 import static ru.practicum.shareit.booking.enums.BookingTimeState.*;
 import static ru.practicum.shareit.booking.mapper.BookingMapper.mapToBooking;
 import static ru.practicum.shareit.booking.mapper.BookingMapper.mapToBookingAllFieldsDto;
-import static ru.practicum.shareit.item.mapper.ItemMapper.mapToItem;
+import static ru.practicum.shareit.booking.repository.BookingOverlapTrigger.EXCLUSION_VIOLATION;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.*;
 import static ru.practicum.shareit.user.mapper.UserMapper.mapToUser;
-import static ru.practicum.shareit.utils.Pagination.makePageRequest;
+import static ru.practicum.shareit.utils.ETags.checkVersion;
+import static ru.practicum.shareit.utils.MultiGet.checkIds;
+import static ru.practicum.shareit.utils.MultiGet.orderByIds;
+import static ru.practicum.shareit.utils.Pagination.*;
 
 
 @Slf4j
@@ -39,10 +60,18 @@ import static ru.practicum.shareit.utils.Pagination.makePageRequest;
 @AllArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final int SUMMARY_BATCH_SIZE = 1000;
     private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
     private final UserService userService;
+    private final BookingJdbcRepository bookingJdbcRepository;
+    private final ReadPaths readPaths;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemLocks itemLocks;
+    private final ItemRepository itemRepository;
 
-    private void validate(BookingSavingDto bookingSavingDto) {
+    // Правила, не зависящие от текущей даты: их же применяет импорт, где брони бывают и в прошлом
+    public static void validatePeriod(BookingSavingDto bookingSavingDto) {
 
         if (bookingSavingDto.getStart() == null)
             throw new ValidationException("Пожалуйста, укажите дату начала бронирования");
@@ -52,12 +81,18 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Пожалуйста, укажите дату окончания бронирования");
 
 
+        if (bookingSavingDto.getEnd().isBefore(bookingSavingDto.getStart()))
+            throw new ValidationException("Некорректная дата окончания бронирования");
+    }
+
+    private void validate(BookingSavingDto bookingSavingDto) {
+        validatePeriod(bookingSavingDto);
+
         if (bookingSavingDto.getStart().toLocalDate().isBefore(LocalDate.now()))
             throw new ValidationException("Некорректная дата начала бронирования");
 
 
-        if (bookingSavingDto.getEnd().isBefore(bookingSavingDto.getStart())
-                || bookingSavingDto.getEnd().toLocalDate().isBefore(LocalDate.now()))
+        if (bookingSavingDto.getEnd().toLocalDate().isBefore(LocalDate.now()))
             throw new ValidationException("Некорректная дата окончания бронирования");
 
 
@@ -74,48 +109,102 @@ public class BookingServiceImpl implements BookingService {
         }
         validate(bookingSavingDto);
 
+        itemLocks.lock(itemDto.getId());
         var booker = mapToUser(userService.get(bookerId));
-        var item = mapToItem(itemDto);
-        var bookings = bookingRepository.findBookingsByItem_IdIsAndStatusIsAndEndIsAfter(
-                item.getId(),
-                APPROVED,
-                bookingSavingDto.getStart());
-        if (!bookings.isEmpty())
-            throw new NotFoundException("Эта вещь не может быть забронирована: " + item.getName());
+        if (overlapsApproved(itemDto.getId(), bookingSavingDto.getStart(), bookingSavingDto.getEnd()))
+            throw new NotFoundException("Эта вещь не может быть забронирована: " + itemDto.getName());
         var booking = mapToBooking(bookingSavingDto);
         booking.setStatus(WAITING);
         booking.setBooker(booker);
-        booking.setItem(item);
+        // ссылка, а не сущность из DTO: у отсоединенной вещи без версии Hibernate не смог бы проверить состояние
+        booking.setItem(itemRepository.getReferenceById(itemDto.getId()));
         var savedBooking = bookingRepository.save(booking);
+        refreshBookingSummary(itemDto.getId());
         return mapToBookingAllFieldsDto(savedBooking);
     }
 
     @Override
     @Transactional
-    public BookingAllFieldsDto approve(Long bookingId, boolean approved, Long userId) {
+    public BookingAllFieldsDto approve(Long bookingId, boolean approved, Long userId, Long expectedVersion) {
+        // один условный UPDATE; пересечение с одобренными бронями проверяет ограничение в БД
+        BookingAllFieldsDto booking;
+        try {
+            booking = bookingJdbcRepository.updateStatusIfWaiting(bookingId, userId,
+                    approved ? APPROVED : REJECTED, expectedVersion).orElse(null);
+        } catch (DataIntegrityViolationException e) {
+            if (isExclusionViolation(e))
+                throw overlapConflict(bookingId);
+            throw e;
+        }
+        if (booking == null)
+            throw approveRejection(bookingId, userId, expectedVersion);
+        var itemId = booking.getItem().getId();
+        if (approved)
+            bookingIntervalIndex.add(booking.getId(), itemId, booking.getStart(), booking.getEnd());
+        refreshBookingSummary(itemId);
+        return booking;
+    }
+
+    // индекс в памяти видит только брони этого узла; под общей для кластера блокировкой спрашиваем БД
+    private boolean overlapsApproved(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (itemLocks.isClusterWide())
+            return bookingRepository.existsByItem_IdAndStatusAndStartBeforeAndEndAfter(itemId, APPROVED, end, start);
+        return bookingIntervalIndex.overlaps(itemId, start, end);
+    }
+
+    // Строка не изменилась: причина выясняется только на этом, редком, пути
+    private RuntimeException approveRejection(Long bookingId, Long userId, Long expectedVersion) {
         var booking = bookingRepository.findById(bookingId).orElseThrow(
                 () -> new NotFoundException("Бронь с id#" + bookingId + " не существует"));
         if (booking.getBooker().getId().equals(userId))
-            throw new NotFoundException("Нет доступного одобрения для пользователя с id#" + userId);
-        if (!booking.getItem().getOwner().getId().equals(userId)
-                || !booking.getStatus().equals(WAITING))
-            throw new ValidationException("Статус бронирования не может быть обновлен");
-        booking.setStatus(approved ? APPROVED : REJECTED);
-        var savedBooking = bookingRepository.save(booking);
-        return mapToBookingAllFieldsDto(savedBooking);
+            return new NotFoundException("Нет доступного одобрения для пользователя с id#" + userId);
+        checkVersion(expectedVersion, booking.getVersion());
+        return new ValidationException("Статус бронирования не может быть обновлен");
     }
 
     @Override
     public BookingAllFieldsDto getBookingById(Long bookingId, Long userId) {
         var booking = bookingRepository.findById(bookingId).orElseThrow(
                 () -> new NotFoundException("Бронь с id#" + bookingId + "не существует"));
-        if (!booking.getBooker().getId().equals(userId)
-                && !booking.getItem().getOwner().getId().equals(userId)) {
+        if (!isVisibleTo(booking, userId)) {
             throw new NotFoundException("Нет доступного одобрения для пользователя с id#" + userId);
         }
         return mapToBookingAllFieldsDto(booking);
     }
 
+    @Override
+    public List<BookingAllFieldsDto> getBookingsByIds(List<Long> bookingIds, Long userId) {
+        var ids = checkIds(bookingIds);
+        var bookings = bookingRepository.findAllById(ids)
+                .stream()
+                .filter(booking -> isVisibleTo(booking, userId))
+                .collect(toList());
+        return orderByIds(ids, bookings, Booking::getId)
+                .stream()
+                .map(BookingMapper::mapToBookingAllFieldsDto)
+                .collect(toList());
+    }
+
+    // бронь видят только арендатор и владелец вещи
+    private static boolean isVisibleTo(Booking booking, Long userId) {
+        return booking.getBooker().getId().equals(userId)
+                || booking.getItem().getOwner().getId().equals(userId);
+    }
+
+    private static ConflictException overlapConflict(Long bookingId) {
+        return new ConflictException("Бронь#" + bookingId + " пересекается с уже одобренной бронью вещи");
+    }
+
+    // нарушение excl_bookings_item_period (или триггера, заменяющего его в H2)
+    private static boolean isExclusionViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION.equals(sqlException.getSQLState()))
+                return true;
+        }
+        return false;
+    }
+
     @Override
     public List<BookingAllFieldsDto> getBookingsByItem(Long itemId, Long userId) {
         return bookingRepository
@@ -125,6 +214,67 @@ public class BookingServiceImpl implements BookingService {
                 .collect(toList());
     }
 
+    @Override
+    public List<ItemBookingSummaryDto> getBookingSummaries(List<Long> itemIds) {
+        var now = now();
+        var summaries = summaryRepository.findAllById(itemIds)
+                .stream()
+                .filter(summary -> summary.getValidUntil() == null || summary.getValidUntil().isAfter(now))
+                .collect(toMap(ItemBookingSummary::getItemId, identity()));
+        var staleItemIds = itemIds.stream()
+                .filter(itemId -> !summaries.containsKey(itemId))
+                .collect(toList());
+        if (!staleItemIds.isEmpty())
+            summaries.putAll(computeSummaries(staleItemIds, now));
+        return itemIds.stream()
+                .map(summaries::get)
+                .map(BookingMapper::mapToItemBookingSummaryDto)
+                .collect(toList());
+    }
+
+    @Override
+    @Transactional
+    public void rolloverBookingSummaries() {
+        var itemIds = Stream.concat(
+                        summaryRepository.findExpiredItemIds(now()).stream(),
+                        summaryRepository.findMissingItemIds().stream())
+                .distinct()
+                .collect(toList());
+        if (itemIds.isEmpty()) return;
+        // после импорта сводок не хватает у всех вещей сразу: IN-список в computeSummaries режем на части
+        for (int from = 0; from < itemIds.size(); from += SUMMARY_BATCH_SIZE) {
+            var batch = itemIds.subList(from, Math.min(from + SUMMARY_BATCH_SIZE, itemIds.size()));
+            summaryRepository.saveAll(computeSummaries(batch, now()).values());
+        }
+        log.debug("Booking summaries refreshed for {} items", itemIds.size());
+    }
+
+    private void refreshBookingSummary(Long itemId) {
+        summaryRepository.saveAll(computeSummaries(List.of(itemId), now()).values());
+    }
+
+    private Map<Long, ItemBookingSummary> computeSummaries(List<Long> itemIds, LocalDateTime now) {
+        var summaries = itemIds.stream()
+                .collect(toMap(identity(), itemId -> ItemBookingSummary.builder().itemId(itemId).build()));
+        bookingRepository.findLastBookingsByItemIds(itemIds, now).forEach(booking -> {
+            var summary = summaries.get(booking.getItem().getId());
+            if (summary.getLastBookingId() == null) {
+                summary.setLastBookingId(booking.getId());
+                summary.setLastBookerId(booking.getBooker().getId());
+            }
+        });
+        bookingRepository.findNextBookingsByItemIds(itemIds, now).forEach(booking -> {
+            var summary = summaries.get(booking.getItem().getId());
+            if (summary.getNextBookingId() == null) {
+                summary.setNextBookingId(booking.getId());
+                summary.setNextBookerId(booking.getBooker().getId());
+            }
+        });
+        bookingRepository.findNextChangeByItemIds(itemIds, now)
+                .forEach(row -> summaries.get((Long) row[0]).setValidUntil((LocalDateTime) row[1]));
+        return summaries;
+    }
+
     @Override
     public List<BookingAllFieldsDto> getAllBookings(Long bookerId, String state) {
         Stream<Booking> stream = null;
@@ -163,6 +313,8 @@ public class BookingServiceImpl implements BookingService {
         Stream<Booking> stream = null;
         var pageRequest = makePageRequest(from, size, Sort.by("start").descending());
         var userDto = userService.get(bookerId);
+        if (readPaths.isJdbcBookings())
+            return bookingJdbcRepository.findByBooker(bookerId, state, pageRequest);
         var user = mapToUser(userDto);
         if (state == null || ALL.name().equals(state)) {
             if (pageRequest == null)
@@ -229,6 +381,8 @@ public class BookingServiceImpl implements BookingService {
                 : null;
 
         var user = mapToUser(userService.get(userId));
+        if (readPaths.isJdbcOwnerBookings())
+            return bookingJdbcRepository.findByItemOwner(userId, state != null ? state.name() : null, pageRequest);
         Stream<Booking> stream;
 
         if (state == null || state == BookingTimeState.ALL) {
@@ -256,5 +410,70 @@ public class BookingServiceImpl implements BookingService {
                 .collect(toList());
     }
 
+    @Override
+    public RowStream<BookingAllFieldsDto> streamAllBookings(Long bookerId, String state) {
+        userService.get(bookerId);
+        return bookingJdbcRepository.streamByBooker(bookerId, state);
+    }
+
+    @Override
+    public RowStream<BookingAllFieldsDto> streamBookingsByOwnerId(Long userId, BookingTimeState state) {
+        userService.get(userId);
+        return bookingJdbcRepository.streamByItemOwner(userId, state != null ? state.name() : null);
+    }
+
+    @Override
+    public CursorPage<BookingAllFieldsDto> getAllBookingsAfter(Long bookerId, String state, String cursor, Integer size) {
+        userService.get(bookerId);
+        return findBookingsAfter(bookerIs(bookerId).and(stateIs(state)), cursor, size);
+    }
+
+    @Override
+    public CursorPage<BookingAllFieldsDto> getBookingsByOwnerIdAfter(Long userId,
+                                                                     BookingTimeState state,
+                                                                     String cursor,
+                                                                     Integer size) {
+        userService.get(userId);
+        return findBookingsAfter(itemOwnerIs(userId).and(stateIs(state != null ? state.name() : null)), cursor, size);
+    }
+
+    private CursorPage<BookingAllFieldsDto> findBookingsAfter(Specification<Booking> specification,
+                                                              String cursor,
+                                                              Integer size) {
+        var limit = makeLimit(size);
+        if (cursor != null && !cursor.isBlank()) {
+            var position = parseCursor(cursor).split("_");
+            try {
+                specification = specification.and(
+                        positionedBefore(LocalDateTime.parse(position[0]), Long.parseLong(position[1])));
+            } catch (DateTimeParseException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new ValidationException("Некорректный курсор: " + cursor);
+            }
+        }
+        var bookings = bookingRepository.findBy(specification, query -> query
+                        .project("item", "booker")
+                        .sortBy(Sort.by("start").descending().and(Sort.by("id").descending()))
+                        .limit(limit.max())
+                        .all())
+                .stream()
+                .map(BookingMapper::mapToBookingAllFieldsDto)
+                .collect(toList());
+        return makeCursorPage(bookings, limit, booking -> booking.getStart() + "_" + booking.getId());
+    }
+
+    private Specification<Booking> stateIs(String state) {
+        var now = now();
+        if (state == null || ALL.name().equals(state))
+            return all();
+        if (PAST.name().equals(state))
+            return endBefore(now);
+        if (CURRENT.name().equals(state))
+            return startBefore(now).and(endAfter(now));
+        if (FUTURE.name().equals(state))
+            return startAfter(now);
+        if (Arrays.stream(BookingState.values()).anyMatch(bookingState -> bookingState.name().equals(state)))
+            return statusIs(BookingState.valueOf(state));
+        throw new ValidationException("Неизвестный статус: " + state);
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.summary.rollover.enabled", matchIfMissing = true)
+public class BookingSummaryScheduler {
+    private final BookingService bookingService;
+
+    @Scheduled(fixedDelayString = "${shareit.booking.summary.rollover.delay:60000}")
+    public void rollover() {
+        bookingService.rolloverBookingSummaries();
+    }
+}
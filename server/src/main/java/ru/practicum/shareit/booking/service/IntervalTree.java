@@ -0,0 +1,102 @@
+package ru.practicum.shareit.booking.service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Дерево интервалов [start, end) на декартовом дереве: ключ — (start, id), в каждом узле хранится
+ * максимальный end поддерева. Поиск пересечения и вставка — O(log n) в среднем.
+ * Не потокобезопасно, синхронизация на стороне {@link BookingIntervalIndex}.
+ */
+class IntervalTree {
+    private Node root;
+    private int size;
+
+    void add(long id, LocalDateTime start, LocalDateTime end) {
+        root = insert(root, new Node(id, start, end));
+    }
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        var node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && node.end.isAfter(start))
+                return true;
+            // если слева есть интервал, заканчивающийся после start, и он не пересекается с искомым,
+            // то он начинается не раньше end, а правое поддерево начинается еще позже
+            node = node.left != null && node.left.maxEnd.isAfter(start) ? node.left : node.right;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            size++;
+            return added;
+        }
+        var compare = compare(added, node);
+        if (compare == 0) {
+            node.end = added.end;
+        } else if (compare < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority)
+                node = rotateRight(node);
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority)
+                node = rotateLeft(node);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        var left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        var right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        return right;
+    }
+
+    private static void update(Node node) {
+        var maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd))
+            maxEnd = node.left.maxEnd;
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd))
+            maxEnd = node.right.maxEnd;
+        node.maxEnd = maxEnd;
+    }
+
+    private static int compare(Node first, Node second) {
+        var compare = first.start.compareTo(second.start);
+        return compare != 0 ? compare : Long.compare(first.id, second.id);
+    }
+
+    private static class Node {
+        private final long id;
+        private final LocalDateTime start;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(long id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
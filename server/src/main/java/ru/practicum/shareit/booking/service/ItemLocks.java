@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.service;
+
+/**
+ * Блокировка вещи до конца текущей транзакции: бронирования одной вещи идут по очереди,
+ * разных вещей — параллельно. Одобрение не блокирует: это один условный UPDATE, а пересечения
+ * одобренных броней отсекает ограничение в БД. Режим выбирается свойством shareit.booking.lock.mode.
+ */
+public interface ItemLocks {
+    void lock(Long itemId);
+
+    /**
+     * Видна ли блокировка другим экземплярам сервера. Если да, пересечения под ней нужно проверять
+     * запросом к БД: индекс интервалов в памяти не знает о бронях, созданных другими узлами.
+     */
+    default boolean isClusterWide() {
+        return false;
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Блокировки в памяти одного экземпляра сервера: вещи раскладываются по фиксированному набору ReentrantLock
+ * (не synchronized: ожидание не закрепляет виртуальный поток за потоком-носителем).
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.lock.mode", havingValue = "jvm", matchIfMissing = true)
+public class StripedItemLocks implements ItemLocks {
+    private final ReentrantLock[] stripes;
+
+    public StripedItemLocks(@Value("${shareit.booking.lock.stripes:64}") int stripes) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++)
+            this.stripes[i] = new ReentrantLock();
+    }
+
+    // снимается после коммита или отката, когда изменения уже видны другим транзакциям
+    @Override
+    public void lock(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            throw new IllegalStateException("Item lock requires an active transaction");
+        var lock = stripes[Math.floorMod(Long.hashCode(itemId) * 0x9E3779B9, stripes.length)];
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
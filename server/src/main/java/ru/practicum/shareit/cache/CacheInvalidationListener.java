@@ -0,0 +1,88 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.utils.DatabasePlatform;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static ru.practicum.shareit.cache.CacheInvalidationPublisher.CHANNEL;
+
+/**
+ * Слушает канал инвалидации и вытесняет из локального кэша второго уровня сущности,
+ * измененные на других репликах. Пока соединение с каналом потеряно, сообщения
+ * пропадают, поэтому после переподключения кэш очищается целиком.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.cache.mode", havingValue = "clustered")
+public class CacheInvalidationListener {
+    private final DataSource dataSource;
+    private final SessionFactory sessionFactory;
+    private final boolean enabled;
+    private Connection connection;
+
+    public CacheInvalidationListener(EntityManagerFactory entityManagerFactory,
+                                     DataSource dataSource,
+                                     DatabasePlatform databasePlatform) {
+        this.dataSource = dataSource;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.enabled = databasePlatform.isPostgres();
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.cache.invalidation.poll-delay:1000}")
+    public synchronized void poll() {
+        if (!enabled) return;
+        try {
+            if (connection == null || connection.isClosed())
+                listen();
+            try (var statement = connection.createStatement()) {
+                statement.execute("SELECT 1");
+            }
+            var notifications = connection.unwrap(PGConnection.class).getNotifications();
+            if (notifications == null) return;
+            for (var notification : notifications)
+                evict(notification.getParameter());
+        } catch (SQLException e) {
+            log.warn("Cache invalidation channel lost", e);
+            close();
+        }
+    }
+
+    void evict(String message) {
+        var separator = message.lastIndexOf(':');
+        var entityName = message.substring(0, separator);
+        var id = Long.valueOf(message.substring(separator + 1));
+        sessionFactory.getCache().evictEntityData(entityName, id);
+        log.debug("Evicted {}#{} from second-level cache", entityName, id);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (connection == null) return;
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Cache invalidation connection was not closed cleanly", e);
+        }
+        connection = null;
+    }
+
+    private void listen() throws SQLException {
+        connection = dataSource.getConnection();
+        connection.setAutoCommit(true);
+        try (var statement = connection.createStatement()) {
+            statement.execute("LISTEN " + CHANNEL);
+        }
+        sessionFactory.getCache().evictAllRegions();
+        log.info("Listening for cache invalidations on channel {}", CHANNEL);
+    }
+}
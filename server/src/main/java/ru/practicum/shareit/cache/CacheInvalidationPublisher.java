@@ -0,0 +1,93 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.utils.DatabasePlatform;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Рассылает другим репликам изменения кэшируемых сущностей через PostgreSQL NOTIFY.
+ * Сообщение уходит после коммита отдельным соединением, чтобы реплики не вытеснили
+ * запись раньше, чем изменение станет видно в базе.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.cache.mode", havingValue = "clustered")
+public class CacheInvalidationPublisher implements PostUpdateEventListener, PostDeleteEventListener {
+    static final String CHANNEL = "shareit_cache";
+    private final DataSource dataSource;
+
+    public CacheInvalidationPublisher(EntityManagerFactory entityManagerFactory,
+                                      DataSource dataSource,
+                                      DatabasePlatform databasePlatform) {
+        this.dataSource = dataSource;
+        if (!databasePlatform.isPostgres()) {
+            log.warn("Clustered cache invalidation requires PostgreSQL, falling back to local cache");
+            return;
+        }
+        var registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    static String toMessage(String entityName, Object id) {
+        return entityName + ":" + id;
+    }
+
+    private void publish(EntityPersister persister, Object id) {
+        if (!persister.canWriteToCache()) return;
+        var message = toMessage(persister.getEntityName(), id);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(message);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                send(message);
+            }
+        });
+    }
+
+    private void send(String message) {
+        try (var connection = dataSource.getConnection();
+             var statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, message);
+            statement.execute();
+        } catch (SQLException e) {
+            log.warn("Cache invalidation for {} was not published", message, e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Транзакции readOnly уходят на реплики по кругу, все остальное - на primary.
+ * Реплика, отставшая больше чем на maxLagMillis или не ответившая на проверку,
+ * выключается до следующей удачной проверки; если свежих реплик нет, читаем с primary.
+ * Читать решение о маршруте можно только при реальном получении соединения,
+ * поэтому снаружи источник оборачивается в LazyConnectionDataSourceProxy.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final String lagQuery;
+    private final long maxLagMillis;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    List<DataSource> replicaDataSources,
+                                    String lagQuery,
+                                    long maxLagMillis) {
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLagMillis;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            var replica = new Replica("replica-" + i, replicaDataSources.get(i));
+            replicas.add(replica);
+            targets.put(replica.key, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+            return PRIMARY;
+        var fresh = replicas.stream().filter(replica -> replica.fresh).toList();
+        if (fresh.isEmpty())
+            return PRIMARY;
+        return fresh.get(Math.floorMod(next.getAndIncrement(), fresh.size())).key;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.replica.check-delay:1000}")
+    public void checkReplicas() {
+        replicas.forEach(this::check);
+    }
+
+    public void close() {
+        replicas.forEach(replica -> close(replica.key, replica.dataSource));
+        close(PRIMARY, getResolvedDefaultDataSource());
+    }
+
+    private static void close(String key, DataSource dataSource) {
+        if (!(dataSource instanceof AutoCloseable closeable)) return;
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            log.debug("Pool {} was not closed cleanly", key, e);
+        }
+    }
+
+    private void check(Replica replica) {
+        var fresh = false;
+        try (var connection = replica.dataSource.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                fresh = connection.isValid(1);
+            } else {
+                try (var statement = connection.createStatement();
+                     var resultSet = statement.executeQuery(lagQuery)) {
+                    resultSet.next();
+                    var lag = resultSet.getLong(1);
+                    fresh = lag <= maxLagMillis;
+                    if (!fresh)
+                        log.debug("Replica {} lags {} ms behind primary", replica.key, lag);
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Replica {} check failed", replica.key, e);
+        }
+        if (replica.fresh != fresh)
+            log.warn("Replica {} is {}", replica.key, fresh ? "back in rotation" : "stale, reading from primary");
+        replica.fresh = fresh;
+    }
+
+    private static class Replica {
+        private final String key;
+        private final DataSource dataSource;
+        private volatile boolean fresh = true;
+
+        Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+    }
+}
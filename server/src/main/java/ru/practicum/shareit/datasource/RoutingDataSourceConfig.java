@@ -0,0 +1,58 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Включается, когда заданы адреса реплик (shareit.datasource.replica.urls, через запятую).
+ * Пулы реплик открываются только на чтение, учетные данные по умолчанию те же, что у primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.replica.urls")
+public class RoutingDataSourceConfig {
+    // отставание реплики PostgreSQL в мс; если реплика догнала primary, отставание 0
+    static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() " +
+            "THEN 0 ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(
+            DataSourceProperties properties,
+            @Value("${shareit.datasource.replica.urls}") List<String> urls,
+            @Value("${shareit.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${shareit.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${shareit.datasource.replica.max-lag:5000}") long maxLagMillis,
+            @Value("${shareit.datasource.replica.lag-query:}") String lagQuery) {
+        var primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        var replicas = new ArrayList<DataSource>();
+        for (var url : urls) {
+            var replica = new HikariDataSource();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        if (lagQuery.isBlank() && primary.getJdbcUrl().startsWith("jdbc:postgresql:"))
+            lagQuery = POSTGRES_LAG_QUERY;
+        return new ReplicaRoutingDataSource(primary, replicas, lagQuery, maxLagMillis);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
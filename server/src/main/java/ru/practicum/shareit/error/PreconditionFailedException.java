@@ -0,0 +1,7 @@
+package ru.practicum.shareit.error;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.importer;
+
+import ru.practicum.shareit.error.ValidationException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Построчное чтение CSV (RFC 4180): в памяти держится только текущая запись.
+ * Пустое поле без кавычек читается как null, "" - как пустая строка, так же как у COPY ... CSV.
+ */
+public class CsvReader implements Closeable {
+    private final BufferedReader reader;
+    private long line;
+
+    public CsvReader(Reader source) {
+        this.reader = source instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(source);
+    }
+
+    public List<String> next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) return null;
+            line++;
+        } while (text.isEmpty());
+
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        var quoted = false;
+        var wasQuoted = false;
+        var position = 0;
+        while (true) {
+            if (position == text.length()) {
+                if (!quoted) break;
+                text = reader.readLine();
+                if (text == null)
+                    throw new ValidationException("Строка " + line + ": не закрыта кавычка");
+                line++;
+                field.append('\n');
+                position = 0;
+                continue;
+            }
+            var symbol = text.charAt(position++);
+            if (quoted) {
+                if (symbol != '"') {
+                    field.append(symbol);
+                } else if (position < text.length() && text.charAt(position) == '"') {
+                    field.append('"');
+                    position++;
+                } else {
+                    quoted = false;
+                }
+            } else if (symbol == '"') {
+                quoted = true;
+                wasQuoted = true;
+            } else if (symbol == ',') {
+                fields.add(value(field, wasQuoted));
+                field.setLength(0);
+                wasQuoted = false;
+            } else {
+                field.append(symbol);
+            }
+        }
+        fields.add(value(field, wasQuoted));
+        return fields;
+    }
+
+    // номер строки файла, на которой закончилась последняя прочитанная запись
+    public long getLine() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static String value(StringBuilder field, boolean quoted) {
+        return field.isEmpty() && !quoted ? null : field.toString();
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.importer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.importer.dto.ImportReportDto;
+import ru.practicum.shareit.importer.service.ImportService;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Импорт при старте из каталога shareit.import.dir: users.csv, items.csv, bookings.csv,
+ * в этом порядке из-за внешних ключей. Отсутствующие файлы пропускаются.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.import.dir")
+public class ImportRunner implements ApplicationRunner {
+    private final ImportService importService;
+    private final Path directory;
+
+    public ImportRunner(ImportService importService, @Value("${shareit.import.dir}") Path directory) {
+        this.importService = importService;
+        this.directory = directory;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        importFile(directory.resolve("users.csv"), importService::importUsers);
+        importFile(directory.resolve("items.csv"), importService::importItems);
+        importFile(directory.resolve("bookings.csv"), importService::importBookings);
+    }
+
+    private void importFile(Path file, Function<Reader, ImportReportDto> importer) {
+        if (!Files.exists(file)) {
+            log.info("Import file {} not found, skipping", file);
+            return;
+        }
+        try (var reader = Files.newBufferedReader(file, UTF_8)) {
+            var report = importer.apply(reader);
+            report.getErrors().forEach(error -> log.warn("{}: {}", file.getFileName(), error));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read import file " + file, e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.importer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDto {
+    private String table;
+    private long read;
+    private long imported;
+    private long rejected;
+    private long millis;
+    private long rowsPerSecond;
+    private List<String> errors;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.importer.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+class ImportRow<T> {
+    private final long line;
+    private final T value;
+    private String error;
+
+    void reject(String error) {
+        if (this.error == null)
+            this.error = error;
+    }
+
+    boolean isAccepted() {
+        return error == null;
+    }
+}
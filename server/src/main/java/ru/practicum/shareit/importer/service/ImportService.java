@@ -0,0 +1,17 @@
+package ru.practicum.shareit.importer.service;
+
+import ru.practicum.shareit.importer.dto.ImportReportDto;
+
+import java.io.Reader;
+
+/**
+ * Загрузка выгрузки из старой системы: CSV с заголовком, id записей переносятся как есть.
+ * Рассчитано на первичное наполнение базы - id из файла не должны пересекаться с уже выданными.
+ */
+public interface ImportService {
+    ImportReportDto importUsers(Reader source);
+
+    ImportReportDto importItems(Reader source);
+
+    ImportReportDto importBookings(Reader source);
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.importer.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.error.ValidationException;
+import ru.practicum.shareit.importer.CsvReader;
+import ru.practicum.shareit.importer.dto.ImportReportDto;
+import ru.practicum.shareit.importer.writer.BatchRowWriter;
+import ru.practicum.shareit.importer.writer.CopyRowWriter;
+import ru.practicum.shareit.importer.writer.RowWriter;
+import ru.practicum.shareit.utils.DatabasePlatform;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Файл читается потоком и обрабатывается пачками по shareit.import.chunk-size строк:
+ * проверка полей, проверка ссылок и уникальности одним запросом на пачку, затем
+ * COPY на PostgreSQL или JDBC batch на H2. Отклоненные строки попадают в отчет,
+ * а не прерывают загрузку. Весь файл загружается в одной транзакции.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class ImportServiceImpl implements ImportService {
+    static final int MAX_ERRORS = 100;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final RowWriter rowWriter;
+    private final boolean postgres;
+    private final int chunkSize;
+
+    public ImportServiceImpl(NamedParameterJdbcTemplate jdbcTemplate,
+                             DatabasePlatform databasePlatform,
+                             @Value("${shareit.import.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = databasePlatform.isPostgres();
+        this.rowWriter = postgres
+                ? new CopyRowWriter(jdbcTemplate.getJdbcTemplate())
+                : new BatchRowWriter(jdbcTemplate.getJdbcTemplate());
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    @Transactional
+    public ImportReportDto importUsers(Reader source) {
+        return importRows(new UserImportTable(), source);
+    }
+
+    @Override
+    @Transactional
+    public ImportReportDto importItems(Reader source) {
+        return importRows(new ItemImportTable(), source);
+    }
+
+    @Override
+    @Transactional
+    public ImportReportDto importBookings(Reader source) {
+        return importRows(new BookingImportTable(), source);
+    }
+
+    private <T> ImportReportDto importRows(ImportTable<T> table, Reader source) {
+        var started = System.nanoTime();
+        var report = ImportReportDto.builder()
+                .table(table.name())
+                .errors(new ArrayList<>())
+                .build();
+        try (var reader = new CsvReader(source)) {
+            var header = reader.next();
+            if (header == null || !table.columns().equals(header.stream().map(String::trim).collect(toList())))
+                throw new ValidationException("Ожидался заголовок " + String.join(",", table.columns()));
+
+            var chunk = new ArrayList<ImportRow<T>>(chunkSize);
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                report.setRead(report.getRead() + 1);
+                try {
+                    if (record.size() != table.columns().size())
+                        throw new ValidationException("Ожидалось колонок: " + table.columns().size()
+                                + ", получено: " + record.size());
+                    chunk.add(new ImportRow<>(reader.getLine(), table.parse(record)));
+                } catch (ValidationException e) {
+                    reject(report, reader.getLine(), e.getMessage());
+                }
+                if (chunk.size() == chunkSize) {
+                    writeChunk(table, chunk, report);
+                    chunk.clear();
+                }
+            }
+            writeChunk(table, chunk, report);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read import source for " + table.name(), e);
+        }
+        if (report.getImported() > 0)
+            table.realignIds(jdbcTemplate, postgres);
+
+        report.setMillis((System.nanoTime() - started) / 1_000_000);
+        report.setRowsPerSecond(report.getImported() * 1000 / Math.max(report.getMillis(), 1));
+        log.info("Imported {} of {} {} rows in {} ms ({} rows/s), {} rejected",
+                report.getImported(), report.getRead(), table.name(), report.getMillis(),
+                report.getRowsPerSecond(), report.getRejected());
+        return report;
+    }
+
+    private <T> void writeChunk(ImportTable<T> table, List<ImportRow<T>> chunk, ImportReportDto report) {
+        if (chunk.isEmpty()) return;
+        table.check(chunk, jdbcTemplate);
+        var accepted = new ArrayList<T>(chunk.size());
+        for (var row : chunk) {
+            if (row.isAccepted())
+                accepted.add(row.getValue());
+            else
+                reject(report, row.getLine(), row.getError());
+        }
+        rowWriter.write(table.name(), table.columns(), accepted.stream().map(table::values).collect(toList()));
+        table.afterChunk(accepted, jdbcTemplate);
+        report.setImported(report.getImported() + accepted.size());
+        log.debug("Imported {} rows into {}, {} so far", accepted.size(), table.name(), report.getImported());
+    }
+
+    private static void reject(ImportReportDto report, long line, String error) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < MAX_ERRORS)
+            report.getErrors().add("Строка " + line + ": " + error);
+    }
+}
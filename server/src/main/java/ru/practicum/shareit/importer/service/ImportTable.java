@@ -0,0 +1,119 @@
+package ru.practicum.shareit.importer.service;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.practicum.shareit.error.ValidationException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Описание таблицы для импорта: разбор записи CSV, проверки, которые иначе сорвали бы загрузку
+ * на ограничениях БД, и значения колонок для вставки. Проверки по БД делаются одним запросом на пачку.
+ */
+abstract class ImportTable<T> {
+
+    abstract String name();
+
+    abstract List<String> columns();
+
+    abstract T parse(List<String> record);
+
+    abstract Long id(T row);
+
+    abstract Object[] values(T row);
+
+    abstract void checkReferences(List<ImportRow<T>> rows, NamedParameterJdbcTemplate jdbcTemplate);
+
+    void afterChunk(List<T> rows, NamedParameterJdbcTemplate jdbcTemplate) {
+    }
+
+    // id из файла вставлены явно, поэтому генератор переставляется за максимальный id
+    void realignIds(NamedParameterJdbcTemplate jdbcTemplate, boolean postgres) {
+        var jdbc = jdbcTemplate.getJdbcTemplate();
+        if (postgres) {
+            jdbc.queryForObject("SELECT setval(pg_get_serial_sequence('" + name() + "', 'id'), MAX(id)) " +
+                    "FROM " + name(), Long.class);
+        } else {
+            var maxId = jdbc.queryForObject("SELECT MAX(id) FROM " + name(), Long.class);
+            if (maxId != null)
+                jdbc.execute("ALTER TABLE " + name() + " ALTER COLUMN id RESTART WITH " + (maxId + 1));
+        }
+    }
+
+    void check(List<ImportRow<T>> chunk, NamedParameterJdbcTemplate jdbcTemplate) {
+        var ids = new HashSet<Long>();
+        for (var row : chunk) {
+            if (!ids.add(id(row.getValue())))
+                row.reject("Запись с id#" + id(row.getValue()) + " повторяется в файле");
+        }
+        var existing = findExisting(jdbcTemplate, "SELECT id FROM " + name() + " WHERE id IN (:keys)", ids, Long.class);
+        chunk.stream()
+                .filter(ImportRow::isAccepted)
+                .filter(row -> existing.contains(id(row.getValue())))
+                .forEach(row -> row.reject("Запись с id#" + id(row.getValue()) + " уже существует"));
+        checkReferences(chunk.stream().filter(ImportRow::isAccepted).collect(toList()), jdbcTemplate);
+    }
+
+    static <K> Set<K> findExisting(NamedParameterJdbcTemplate jdbcTemplate,
+                                   String query,
+                                   Collection<K> keys,
+                                   Class<K> type) {
+        if (keys.isEmpty()) return Set.of();
+        return new HashSet<>(jdbcTemplate.queryForList(query, Map.of("keys", keys), type));
+    }
+
+    static <T> Set<Long> collect(List<ImportRow<T>> rows, Function<T, Long> key) {
+        var keys = new HashSet<Long>();
+        rows.forEach(row -> {
+            var value = key.apply(row.getValue());
+            if (value != null) keys.add(value);
+        });
+        return keys;
+    }
+
+    static String column(List<String> record, int index) {
+        var value = record.get(index);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    static Long parseLong(List<String> record, int index, String column) {
+        var value = column(record, index);
+        try {
+            return value == null ? null : Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Некорректное значение в колонке " + column + ": " + value);
+        }
+    }
+
+    static Long parseId(List<String> record) {
+        var id = parseLong(record, 0, "id");
+        if (id == null)
+            throw new ValidationException("Не указан id");
+        return id;
+    }
+
+    static Boolean parseBoolean(List<String> record, int index, String column) {
+        var value = column(record, index);
+        if (value == null) return null;
+        if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false"))
+            throw new ValidationException("Некорректное значение в колонке " + column + ": " + value);
+        return Boolean.valueOf(value);
+    }
+
+    static LocalDateTime parseDateTime(List<String> record, int index, String column) {
+        var value = column(record, index);
+        try {
+            return value == null ? null : LocalDateTime.parse(value.replace(' ', 'T'));
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Некорректное значение в колонке " + column + ": " + value);
+        }
+    }
+}
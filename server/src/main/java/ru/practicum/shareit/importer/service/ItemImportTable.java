@@ -0,0 +1,86 @@
+package ru.practicum.shareit.importer.service;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.practicum.shareit.error.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+
+import java.util.List;
+
+class ItemImportTable extends ImportTable<ItemDto> {
+
+    @Override
+    String name() {
+        return "items";
+    }
+
+    @Override
+    List<String> columns() {
+        return List.of("id", "name", "description", "available", "owner_id", "request_id");
+    }
+
+    @Override
+    ItemDto parse(List<String> record) {
+        var itemDto = new ItemDto(
+                parseId(record),
+                column(record, 1),
+                column(record, 2),
+                parseBoolean(record, 3, "available"),
+                parseLong(record, 4, "owner_id"),
+                parseLong(record, 5, "request_id"));
+        var error = ItemServiceImpl.validate(itemDto);
+        if (error != null)
+            throw new ValidationException(error);
+        if (itemDto.getOwnerId() == null)
+            throw new ValidationException("Не указан владелец вещи");
+        return itemDto;
+    }
+
+    @Override
+    Long id(ItemDto row) {
+        return row.getId();
+    }
+
+    @Override
+    Object[] values(ItemDto row) {
+        return new Object[]{
+                row.getId(),
+                row.getName(),
+                row.getDescription(),
+                row.getAvailable(),
+                row.getOwnerId(),
+                row.getRequestId()};
+    }
+
+    @Override
+    void checkReferences(List<ImportRow<ItemDto>> rows, NamedParameterJdbcTemplate jdbcTemplate) {
+        var owners = findExisting(jdbcTemplate,
+                "SELECT id FROM users WHERE id IN (:keys)",
+                collect(rows, ItemDto::getOwnerId),
+                Long.class);
+        var requests = findExisting(jdbcTemplate,
+                "SELECT id FROM requests WHERE id IN (:keys)",
+                collect(rows, ItemDto::getRequestId),
+                Long.class);
+        rows.forEach(row -> {
+            var itemDto = row.getValue();
+            if (!owners.contains(itemDto.getOwnerId()))
+                row.reject("Пользователь с ID #" + itemDto.getOwnerId() + " не существует");
+            if (itemDto.getRequestId() != null && !requests.contains(itemDto.getRequestId()))
+                row.reject("Запрос с ID#" + itemDto.getRequestId() + " не существует");
+        });
+    }
+
+    // у items не identity, а последовательность с шагом 50 (см. schema.sql)
+    @Override
+    void realignIds(NamedParameterJdbcTemplate jdbcTemplate, boolean postgres) {
+        var jdbc = jdbcTemplate.getJdbcTemplate();
+        if (postgres) {
+            jdbc.queryForObject("SELECT setval('items_seq', MAX(id)) FROM items", Long.class);
+        } else {
+            var maxId = jdbc.queryForObject("SELECT MAX(id) FROM items", Long.class);
+            if (maxId != null)
+                jdbc.execute("ALTER SEQUENCE items_seq RESTART WITH " + (maxId + 1));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.importer.service;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.practicum.shareit.error.ValidationException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static java.util.stream.Collectors.toSet;
+
+class UserImportTable extends ImportTable<UserDto> {
+
+    @Override
+    String name() {
+        return "users";
+    }
+
+    @Override
+    List<String> columns() {
+        return List.of("id", "name", "email");
+    }
+
+    @Override
+    UserDto parse(List<String> record) {
+        var userDto = new UserDto(parseId(record), column(record, 1), column(record, 2));
+        UserServiceImpl.validate(userDto);
+        if (userDto.getName() == null)
+            throw new ValidationException("Имя пользователя не может быть пустым");
+        return userDto;
+    }
+
+    @Override
+    Long id(UserDto row) {
+        return row.getId();
+    }
+
+    @Override
+    Object[] values(UserDto row) {
+        return new Object[]{row.getId(), row.getName(), row.getEmail()};
+    }
+
+    @Override
+    void checkReferences(List<ImportRow<UserDto>> rows, NamedParameterJdbcTemplate jdbcTemplate) {
+        var emails = new HashSet<String>();
+        rows.forEach(row -> {
+            if (!emails.add(row.getValue().getEmail()))
+                row.reject("Email " + row.getValue().getEmail() + " повторяется в файле");
+        });
+        var existing = findExisting(jdbcTemplate,
+                "SELECT email FROM users WHERE email IN (:keys)",
+                rows.stream().map(row -> row.getValue().getEmail()).collect(toSet()),
+                String.class);
+        rows.stream()
+                .filter(row -> existing.contains(row.getValue().getEmail()))
+                .forEach(row -> row.reject("Пользователь с email: " + row.getValue().getEmail() + " уже существует."));
+    }
+}
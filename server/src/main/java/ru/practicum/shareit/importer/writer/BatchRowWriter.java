@@ -0,0 +1,23 @@
+package ru.practicum.shareit.importer.writer;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Вставка пачкой через JDBC batch: используется там, где нет COPY (H2).
+ */
+@AllArgsConstructor
+public class BatchRowWriter implements RowWriter {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void write(String table, List<String> columns, List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+        var sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") " +
+                "VALUES (" + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        jdbcTemplate.batchUpdate(sql, rows);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.importer.writer;
+
+import lombok.AllArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Загрузка через COPY ... FROM STDIN на соединении текущей транзакции.
+ * Строки уходят в поток по одной, без сборки всей пачки в один буфер.
+ */
+@AllArgsConstructor
+public class CopyRowWriter implements RowWriter {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void write(String table, List<String> columns, List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+        var sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            var copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+            try {
+                for (var row : rows) {
+                    var bytes = toCsv(row).getBytes(UTF_8);
+                    copyIn.writeToCopy(bytes, 0, bytes.length);
+                }
+                return copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive())
+                    copyIn.cancelCopy();
+            }
+        });
+    }
+
+    static String toCsv(Object[] row) {
+        var line = new StringBuilder();
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) line.append(',');
+            if (row[i] instanceof String text)
+                line.append('"').append(text.replace("\"", "\"\"")).append('"');
+            else if (row[i] != null)
+                line.append(row[i]);
+        }
+        return line.append('\n').toString();
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.importer.writer;
+
+import java.util.List;
+
+public interface RowWriter {
+    void write(String table, List<String> columns, List<Object[]> rows);
+}
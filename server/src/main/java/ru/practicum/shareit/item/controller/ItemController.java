@@ -1,12 +1,19 @@
 package ru.practicum.shareit.item.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.utils.CursorPage;
+import ru.practicum.shareit.utils.ETags;
+import ru.practicum.shareit.utils.StreamingResponses;
 
 import java.util.List;
 
@@ -16,8 +23,10 @@ import java.util.List;
 @RequestMapping("/items")
 public class ItemController {
     private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
     private final ItemRequestService itemRequestService;
     private final ItemService itemService;
+    private final StreamingResponses streamingResponses;
 
     @PostMapping()
     public ItemDto save(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
@@ -28,18 +37,27 @@ public class ItemController {
         return itemService.save(itemDto, itemRequestDto, userId);
     }
 
+    @PostMapping("/batch")
+    public List<ItemBatchResultDto> saveAll(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
+                                            @RequestBody List<ItemDto> itemDtos) {
+        return itemService.saveAll(itemDtos, userId);
+    }
+
     @PatchMapping("/{itemId}")
-    public ItemDto update(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
-                          @RequestBody ItemDto itemDto,
-                          @PathVariable Long itemId) {
+    public ResponseEntity<ItemDto> update(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @RequestBody ItemDto itemDto,
+                                          @PathVariable Long itemId) {
         itemDto.setId(itemId);
-        return itemService.update(itemDto, userId);
+        var updated = itemService.update(itemDto, userId, ETags.parseIfMatch(ifMatch));
+        return ETags.ok(updated, updated.getVersion());
     }
 
     @GetMapping("/{itemId}")
-    public ItemAllFieldsDto get(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
-                                @PathVariable Long itemId) {
-        return itemService.get(itemId, userId);
+    public ResponseEntity<ItemAllFieldsDto> get(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
+                                                @PathVariable Long itemId) {
+        var item = itemService.get(itemId, userId);
+        return ETags.ok(item, item.getVersion());
     }
 
     @DeleteMapping("/{itemId}")
@@ -48,18 +66,40 @@ public class ItemController {
     }
 
     @GetMapping()
-    public List<ItemAllFieldsDto> getAllItems(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
-                                              @RequestParam(required = false) Integer from,
-                                              @RequestParam(required = false) Integer size) {
-        return itemService.getAllItems(userId, from, size);
+    public ResponseEntity<List<ItemAllFieldsDto>> getAllItems(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
+                                                              @RequestParam(required = false) Integer from,
+                                                              @RequestParam(required = false) Integer size,
+                                                              @RequestParam(required = false) String cursor,
+                                                              HttpServletResponse response) {
+        if (cursor != null)
+            return toResponse(itemService.getAllItemsAfter(userId, cursor, size));
+        if (streamingResponses.applies(from, size)) {
+            streamingResponses.write(itemService.streamAllItems(userId), response);
+            return null;
+        }
+        return ResponseEntity.ok(itemService.getAllItems(userId, from, size));
+    }
+
+    @GetMapping(params = "ids")
+    public List<ItemAllFieldsDto> getAllById(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
+                                             @RequestParam List<Long> ids) {
+        return itemService.getAllById(ids, userId);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
-                                @RequestParam(required = false) Integer from,
-                                @RequestParam(required = false) Integer size,
-                                @RequestParam(required = false) String text) {
-        return itemService.search(text, userId, from, size);
+    public ResponseEntity<List<ItemDto>> search(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
+                                                @RequestParam(required = false) Integer from,
+                                                @RequestParam(required = false) Integer size,
+                                                @RequestParam(required = false) String text,
+                                                @RequestParam(required = false) String cursor,
+                                                HttpServletResponse response) {
+        if (cursor != null)
+            return toResponse(itemService.searchAfter(text, userId, cursor, size));
+        if (streamingResponses.applies(from, size)) {
+            streamingResponses.write(itemService.streamSearch(text), response);
+            return null;
+        }
+        return ResponseEntity.ok(itemService.search(text, userId, from, size));
     }
 
     @PostMapping("{itemId}/comment")
@@ -68,4 +108,11 @@ public class ItemController {
                                   @PathVariable Long itemId) {
         return itemService.saveComment(commentDto, itemId, userId);
     }
+
+    private static <T> ResponseEntity<List<T>> toResponse(CursorPage<T> page) {
+        var response = ResponseEntity.ok();
+        if (page.getNextCursor() != null)
+            response.header(HEADER_NEXT_CURSOR, page.getNextCursor());
+        return response.body(page.getContent());
+    }
 }
@@ -1,9 +1,11 @@
 package ru.practicum.shareit.item.dto;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 @Data
@@ -24,5 +26,12 @@ public class ItemDto {
 
     private Long requestId;
 
+    // версия строки для ETag и условного PATCH, в теле не передается
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private Long version;
 
+    public ItemDto(Long id, String name, String description, Boolean available, Long ownerId, Long requestId) {
+        this(id, name, description, available, ownerId, requestId, null);
+    }
 }
@@ -1,7 +1,6 @@
 package ru.practicum.shareit.item.mapper;
 
 
-import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
@@ -17,6 +16,7 @@ public class ItemMapper {
                 .name(itemDto.getName())
                 .description(itemDto.getDescription())
                 .available(itemDto.getAvailable())
+                .version(itemDto.getVersion())
                 .build();
     }
 
@@ -26,6 +26,7 @@ public class ItemMapper {
                 .name(itemDto.getName())
                 .description(itemDto.getDescription())
                 .available(itemDto.getAvailable())
+                .version(itemDto.getVersion())
                 .build();
     }
 
@@ -37,24 +38,45 @@ public class ItemMapper {
                 .available(item.getAvailable())
                 .ownerId(item.getOwner() != null ? item.getOwner().getId() : null)
                 .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
+                .version(item.getVersion())
                 .build();
     }
 
     public static ItemAllFieldsDto mapToItemAllFieldsDto(Item item,
-                                                         BookingAllFieldsDto lastBooking,
-                                                         BookingAllFieldsDto nextBooking,
+                                                         BookingDto lastBooking,
+                                                         BookingDto nextBooking,
                                                          List<CommentDto> comments) {
-        return new ItemAllFieldsDto(
+        var itemAllFieldsDto = new ItemAllFieldsDto(
                 item.getId(),
                 item.getName(),
                 item.getDescription(),
                 item.getAvailable(),
                 item.getOwner() != null ? item.getOwner().getId() : null,
                 item.getRequest() != null ? item.getRequest().getId() : null,
-                lastBooking != null ? new BookingDto(lastBooking.getId(), lastBooking.getBooker().getId()) : null,
-                nextBooking != null ? new BookingDto(nextBooking.getId(), nextBooking.getBooker().getId()) : null,
+                lastBooking,
+                nextBooking,
                 comments != null ? comments : List.of()
         );
+        itemAllFieldsDto.setVersion(item.getVersion());
+        return itemAllFieldsDto;
     }
-}
 
+    public static ItemAllFieldsDto mapToItemAllFieldsDto(ItemDto item,
+                                                         BookingDto lastBooking,
+                                                         BookingDto nextBooking,
+                                                         List<CommentDto> comments) {
+        var itemAllFieldsDto = new ItemAllFieldsDto(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                item.getOwnerId(),
+                item.getRequestId(),
+                lastBooking,
+                nextBooking,
+                comments != null ? comments : List.of()
+        );
+        itemAllFieldsDto.setVersion(item.getVersion());
+        return itemAllFieldsDto;
+    }
+}
@@ -1,10 +1,21 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    String authorGraph = "Comment.author";
+
+    @Override
+    @EntityGraph(authorGraph)
+    List<Comment> findAll();
+
+    @EntityGraph(authorGraph)
     List<Comment> findCommentByItem_IdIsOrderByCreated(Long itemId);
+
+    @EntityGraph(authorGraph)
+    List<Comment> findCommentByItem_IdInOrderByCreated(List<Long> itemIds);
 }
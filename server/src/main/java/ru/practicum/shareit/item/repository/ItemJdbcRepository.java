@@ -0,0 +1,112 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.utils.RowStream;
+import ru.practicum.shareit.utils.RowStreams;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Списки вещей и комментариев без сущностей: строки сразу в ItemDto и CommentDto.
+ * Условия и порядок совпадают с запросами ItemRepository и CommentRepository.
+ */
+@Repository
+@AllArgsConstructor
+public class ItemJdbcRepository {
+    private static final String SELECT_QUERY = "SELECT item.id, item.name, item.description, item.available, " +
+            "item.owner_id, item.request_id FROM items item ";
+    private static final String SEARCH_CONDITION = "WHERE item.available = TRUE " +
+            "AND (UPPER(item.name) LIKE UPPER(CONCAT('%', :text, '%')) " +
+            "OR UPPER(item.description) LIKE UPPER(CONCAT('%', :text, '%'))) ";
+    private static final String COMMENTS_QUERY = "SELECT comment.id, comment.item_id, comment.text, " +
+            "author.name AS author_name, comment.created " +
+            "FROM comments comment " +
+            "JOIN users author ON author.id = comment.author_id " +
+            "WHERE comment.item_id IN (:itemIds) " +
+            "ORDER BY comment.created";
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final RowStreams rowStreams;
+
+    public List<ItemDto> findByOwner(Long ownerId, PageRequest pageRequest) {
+        var parameters = new MapSqlParameterSource("ownerId", ownerId);
+        return jdbcTemplate.query(
+                SELECT_QUERY + "WHERE item.owner_id = :ownerId ORDER BY item.id" + page(pageRequest, parameters),
+                parameters,
+                ItemJdbcRepository::mapRow);
+    }
+
+    public List<ItemDto> search(String text, PageRequest pageRequest) {
+        var parameters = new MapSqlParameterSource("text", text);
+        return jdbcTemplate.query(
+                SELECT_QUERY + SEARCH_CONDITION + "ORDER BY item.id" + page(pageRequest, parameters),
+                parameters,
+                ItemJdbcRepository::mapRow);
+    }
+
+    public List<ItemDto> searchAfter(String text, Long afterId, int limit) {
+        var parameters = new MapSqlParameterSource("text", text)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(
+                SELECT_QUERY + SEARCH_CONDITION + "AND item.id > :afterId ORDER BY item.id LIMIT :limit",
+                parameters,
+                ItemJdbcRepository::mapRow);
+    }
+
+    public RowStream<ItemDto> streamByOwner(Long ownerId) {
+        return rowStreams.query(SELECT_QUERY + "WHERE item.owner_id = :ownerId ORDER BY item.id",
+                new MapSqlParameterSource("ownerId", ownerId),
+                ItemJdbcRepository::mapRow);
+    }
+
+    public RowStream<ItemDto> streamSearch(String text) {
+        return rowStreams.query(SELECT_QUERY + SEARCH_CONDITION + "ORDER BY item.id",
+                new MapSqlParameterSource("text", text),
+                ItemJdbcRepository::mapRow);
+    }
+
+    // по возрастанию id: так n-граммный индекс дописывает id в конец списков, без сдвига массива
+    public RowStream<ItemDto> streamAvailable() {
+        return rowStreams.query(SELECT_QUERY + "WHERE item.available = TRUE ORDER BY item.id",
+                new MapSqlParameterSource(),
+                ItemJdbcRepository::mapRow);
+    }
+
+    public List<CommentDto> findComments(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) return List.of();
+        return jdbcTemplate.query(COMMENTS_QUERY, new MapSqlParameterSource("itemIds", itemIds),
+                (resultSet, rowNum) -> new CommentDto(
+                        resultSet.getLong("id"),
+                        resultSet.getLong("item_id"),
+                        resultSet.getString("text"),
+                        resultSet.getString("author_name"),
+                        resultSet.getObject("created", LocalDateTime.class)));
+    }
+
+    private static String page(PageRequest pageRequest, MapSqlParameterSource parameters) {
+        if (pageRequest == null) return "";
+        parameters.addValue("limit", pageRequest.getPageSize())
+                .addValue("offset", pageRequest.getOffset());
+        return " LIMIT :limit OFFSET :offset";
+    }
+
+    private static ItemDto mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+        return new ItemDto(
+                resultSet.getLong("id"),
+                resultSet.getString("name"),
+                resultSet.getString("description"),
+                resultSet.getBoolean("available"),
+                resultSet.getObject("owner_id", Long.class),
+                resultSet.getObject("request_id", Long.class));
+    }
+}
@@ -1,12 +1,12 @@
 package ru.practicum.shareit.item.repository;
 
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
 
@@ -15,19 +15,62 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "WHERE item.available = TRUE " +
             "AND (UPPER(item.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
             "OR UPPER(item.description) LIKE UPPER(CONCAT('%', ?1, '%')))";
+    // строки нативных запросов отображаются на сущность Item: нужны все ее колонки, включая версию
+    String searchColumns = "SELECT item.id, item.name, item.description, item.available, item.owner_id, " +
+            "item.request_id, item.version ";
+    String fullTextQuery = searchColumns +
+            "FROM items item, websearch_to_tsquery('russian', ?1) query " +
+            "WHERE item.available AND item.search_vector @@ query " +
+            "ORDER BY ts_rank(item.search_vector, query) DESC, item.id";
+    String trigramQuery = searchColumns +
+            "FROM items item " +
+            "WHERE item.available AND (item.name ILIKE ?1 OR item.description ILIKE ?1) " +
+            "ORDER BY item.id";
+    String fullTextAfterQuery = searchColumns +
+            "FROM items item, websearch_to_tsquery('russian', ?1) query " +
+            "WHERE item.available AND item.search_vector @@ query AND item.id > ?2 " +
+            "ORDER BY item.id LIMIT ?3";
+    String trigramAfterQuery = searchColumns +
+            "FROM items item " +
+            "WHERE item.available AND (item.name ILIKE ?1 OR item.description ILIKE ?1) AND item.id > ?2 " +
+            "ORDER BY item.id LIMIT ?3";
 
     Page<Item> findAllByOwner_IdIs(Long ownerId, Pageable pageable);
 
-    List<Item> findAllByRequestIn(List<ItemRequest> requests);
+    List<Item> findAllByOwner_IdIsAndIdGreaterThanOrderById(Long ownerId, Long id, Limit limit);
 
     @Query(searchQuery)
     Page<Item> search(String text, Pageable pageable);
 
-    List<Item> findAllByRequest_IdIs(Long requestId);
-
     List<Item> findAllByOwner_IdIs(Long ownerId);
 
     @Query(searchQuery)
     List<Item> search(String text);
 
+    @Query(searchQuery + " AND item.id > ?2 ORDER BY item.id")
+    List<Item> searchAfter(String text, Long id, Limit limit);
+
+    @Query(value = fullTextQuery, nativeQuery = true)
+    List<Item> searchFullText(String text, Pageable pageable);
+
+    @Query(value = fullTextQuery, nativeQuery = true)
+    List<Item> searchFullText(String text);
+
+    @Query(value = fullTextAfterQuery, nativeQuery = true)
+    List<Item> searchFullTextAfter(String text, Long id, int limit);
+
+    @Query(value = trigramQuery, nativeQuery = true)
+    List<Item> searchTrigram(String pattern, Pageable pageable);
+
+    @Query(value = trigramQuery, nativeQuery = true)
+    List<Item> searchTrigram(String pattern);
+
+    @Query(value = trigramAfterQuery, nativeQuery = true)
+    List<Item> searchTrigramAfter(String pattern, Long id, int limit);
+
+    // вещи, которые БД удалит каскадом вместе с пользователем: его собственные и созданные по его запросам
+    @Query("SELECT item.id FROM Item item LEFT JOIN item.request request " +
+            "WHERE item.owner.id = ?1 OR request.requester.id = ?1")
+    List<Long> findIdsDeletedWithUser(Long userId);
+
 }
\ No newline at end of file
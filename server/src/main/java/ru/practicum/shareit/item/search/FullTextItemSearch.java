@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.utils.DatabasePlatform;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static ru.practicum.shareit.utils.Pagination.makePageRequest;
+
+/**
+ * Ранжированный полнотекстовый поиск по items.search_vector (GIN).
+ * На H2 колонки нет, поэтому там работает обычный поиск по подстроке.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.mode", havingValue = "full-text")
+public class FullTextItemSearch extends LikeItemSearch {
+    private final DatabasePlatform databasePlatform;
+
+    public FullTextItemSearch(ItemRepository itemRepository, DatabasePlatform databasePlatform) {
+        super(itemRepository);
+        this.databasePlatform = databasePlatform;
+        if (!databasePlatform.isPostgres())
+            log.warn("Full-text item search requires PostgreSQL, falling back to substring search");
+    }
+
+    @Override
+    public List<ItemDto> search(String text, Integer from, Integer size) {
+        if (!databasePlatform.isPostgres())
+            return super.search(text, from, size);
+        var pageRequest = makePageRequest(from, size, Sort.unsorted());
+        var items = pageRequest == null
+                ? itemRepository.searchFullText(text)
+                : itemRepository.searchFullText(text, pageRequest);
+        return items.stream()
+                .map(ItemMapper::mapToItemDto)
+                .collect(toList());
+    }
+
+    @Override
+    public List<ItemDto> searchAfter(String text, Long afterId, Limit limit) {
+        if (!databasePlatform.isPostgres())
+            return super.searchAfter(text, afterId, limit);
+        return itemRepository.searchFullTextAfter(text, afterId, limit.max())
+                .stream()
+                .map(ItemMapper::mapToItemDto)
+                .collect(toList());
+    }
+}
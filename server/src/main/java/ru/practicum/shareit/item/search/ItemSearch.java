@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.utils.RowStream;
+
+import java.util.List;
+
+public interface ItemSearch {
+    List<ItemDto> search(String text, Integer from, Integer size);
+
+    List<ItemDto> searchAfter(String text, Long afterId, Limit limit);
+
+    // Потоковую выдачу поддерживает только режим jdbc, остальные отдают готовый список
+    default RowStream<ItemDto> stream(String text) {
+        return RowStream.of(search(text, null, null));
+    }
+
+    default void index(ItemDto item) {
+    }
+
+    default void remove(Long itemId) {
+    }
+}
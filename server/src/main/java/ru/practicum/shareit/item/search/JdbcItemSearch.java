@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemJdbcRepository;
+import ru.practicum.shareit.utils.RowStream;
+
+import java.util.List;
+
+import static ru.practicum.shareit.utils.Pagination.makePageRequest;
+
+/**
+ * Тот же поиск по подстроке, что и в LikeItemSearch, но строки читаются прямо в ItemDto, минуя сущности.
+ */
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "shareit.item.search.mode", havingValue = "jdbc")
+public class JdbcItemSearch implements ItemSearch {
+    private final ItemJdbcRepository itemJdbcRepository;
+
+    @Override
+    public List<ItemDto> search(String text, Integer from, Integer size) {
+        return itemJdbcRepository.search(text, makePageRequest(from, size, Sort.by("id").ascending()));
+    }
+
+    @Override
+    public List<ItemDto> searchAfter(String text, Long afterId, Limit limit) {
+        return itemJdbcRepository.searchAfter(text, afterId, limit.max());
+    }
+
+    @Override
+    public RowStream<ItemDto> stream(String text) {
+        return itemJdbcRepository.streamSearch(text);
+    }
+}
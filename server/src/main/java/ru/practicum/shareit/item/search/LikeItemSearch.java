@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static ru.practicum.shareit.utils.Pagination.makePageRequest;
+
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "shareit.item.search.mode", havingValue = "like", matchIfMissing = true)
+public class LikeItemSearch implements ItemSearch {
+    protected final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemDto> search(String text, Integer from, Integer size) {
+        Stream<Item> stream;
+        var pageRequest = makePageRequest(from, size, Sort.by("id").ascending());
+        if (pageRequest == null)
+            stream = itemRepository.search(text).stream();
+        else
+            stream = itemRepository.search(text, pageRequest).stream();
+        return stream
+                .map(ItemMapper::mapToItemDto)
+                .collect(toList());
+    }
+
+    @Override
+    public List<ItemDto> searchAfter(String text, Long afterId, Limit limit) {
+        return itemRepository.searchAfter(text, afterId, limit)
+                .stream()
+                .map(ItemMapper::mapToItemDto)
+                .collect(toList());
+    }
+}
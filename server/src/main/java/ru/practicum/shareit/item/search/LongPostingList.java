@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+/**
+ * Отсортированный список id на примитивном long[] без упаковки в Long.
+ */
+class LongPostingList {
+    private long[] ids = new long[4];
+    private int size;
+
+    void add(long id) {
+        // при перестройке id приходят по возрастанию: дописываем в конец без поиска и сдвига
+        if (size == 0 || ids[size - 1] < id) {
+            if (size == ids.length)
+                ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+            return;
+        }
+        var position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) return;
+        position = -position - 1;
+        if (size == ids.length)
+            ids = Arrays.copyOf(ids, size * 2);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        var position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) return;
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    int indexAfter(long id) {
+        var position = Arrays.binarySearch(ids, 0, size, id);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    long get(int index) {
+        return ids[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.*;
+
+/**
+ * Инвертированный индекс по n-граммам (длиной 1..3) названия и описания вещи.
+ * Не потокобезопасен, синхронизация на стороне {@link NgramItemSearch}.
+ */
+class NgramIndex {
+    static final int GRAM_LENGTH = 3;
+    private final Map<String, LongPostingList> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    void add(ItemDto item) {
+        var document = new Document(item, normalize(item.getName()), normalize(item.getDescription()));
+        documents.put(item.getId(), document);
+        for (var gram : grams(document))
+            postings.computeIfAbsent(gram, key -> new LongPostingList()).add(item.getId());
+    }
+
+    void remove(Long itemId) {
+        var document = documents.remove(itemId);
+        if (document == null) return;
+        for (var gram : grams(document)) {
+            var postingList = postings.get(gram);
+            postingList.remove(itemId);
+            if (postingList.isEmpty())
+                postings.remove(gram);
+        }
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    List<ItemDto> search(String text, long afterId, long offset, int limit) {
+        var query = normalize(text);
+        var gramLength = Math.min(GRAM_LENGTH, query.length());
+        var postingLists = new ArrayList<LongPostingList>();
+        for (var gram : grams(query, gramLength)) {
+            var postingList = postings.get(gram);
+            if (postingList == null) return List.of();
+            postingLists.add(postingList);
+        }
+        postingLists.sort(Comparator.comparingInt(LongPostingList::size));
+
+        var result = new ArrayList<ItemDto>();
+        var smallest = postingLists.get(0);
+        long skipped = 0;
+        for (int i = smallest.indexAfter(afterId); i < smallest.size() && result.size() < limit; i++) {
+            var id = smallest.get(i);
+            if (!containsInAll(postingLists, id)) continue;
+            var document = documents.get(id);
+            if (!document.name().contains(query) && !document.description().contains(query)) continue;
+            if (skipped++ < offset) continue;
+            result.add(document.item());
+        }
+        return result;
+    }
+
+    private static boolean containsInAll(List<LongPostingList> postingLists, long id) {
+        for (int i = 1; i < postingLists.size(); i++)
+            if (!postingLists.get(i).contains(id)) return false;
+        return true;
+    }
+
+    private static Set<String> grams(Document document) {
+        var grams = new HashSet<String>();
+        for (int length = 1; length <= GRAM_LENGTH; length++) {
+            grams.addAll(grams(document.name(), length));
+            grams.addAll(grams(document.description(), length));
+        }
+        return grams;
+    }
+
+    private static Set<String> grams(String text, int length) {
+        var grams = new LinkedHashSet<String>();
+        for (int i = 0; i + length <= text.length(); i++)
+            grams.add(text.substring(i, i + length));
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    private record Document(ItemDto item, String name, String description) {
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemJdbcRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import static ru.practicum.shareit.utils.Pagination.makePageRequest;
+
+/**
+ * Поиск доступных вещей по n-граммному индексу в памяти, без обращения к БД.
+ * Индекс строится при старте и периодически перестраивается (чтобы подхватить
+ * каскадные удаления), а между перестройками обновляется из save/update/delete.
+ * Пока индекс не построен, работает обычный поиск по подстроке.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.mode", havingValue = "ngram")
+public class NgramItemSearch extends LikeItemSearch {
+    private final ItemJdbcRepository itemJdbcRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private NgramIndex index = new NgramIndex();
+    private List<Consumer<NgramIndex>> changesDuringRebuild;
+    private volatile boolean ready;
+
+    public NgramItemSearch(ItemRepository itemRepository, ItemJdbcRepository itemJdbcRepository) {
+        super(itemRepository);
+        this.itemJdbcRepository = itemJdbcRepository;
+    }
+
+    @Override
+    public List<ItemDto> search(String text, Integer from, Integer size) {
+        if (!ready)
+            return super.search(text, from, size);
+        var pageRequest = makePageRequest(from, size, Sort.unsorted());
+        lock.readLock().lock();
+        try {
+            return pageRequest == null
+                    ? index.search(text, 0L, 0, Integer.MAX_VALUE)
+                    : index.search(text, 0L, pageRequest.getOffset(), pageRequest.getPageSize());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ItemDto> searchAfter(String text, Long afterId, Limit limit) {
+        if (!ready)
+            return super.searchAfter(text, afterId, limit);
+        lock.readLock().lock();
+        try {
+            return index.search(text, afterId, 0, limit.max());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(ItemDto item) {
+        afterCommit(() -> apply(target -> {
+            target.remove(item.getId());
+            if (Boolean.TRUE.equals(item.getAvailable()))
+                target.add(item);
+        }));
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        afterCommit(() -> apply(target -> target.remove(itemId)));
+    }
+
+    // транзакция нужна курсору PostgreSQL: без нее драйвер читает все строки разом, а не по fetch-size
+    @Scheduled(fixedDelayString = "${shareit.item.search.ngram.rebuild-delay:600000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        var rebuilt = new NgramIndex();
+        itemJdbcRepository.streamAvailable().forEach(rebuilt::add);
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+            changesDuringRebuild = null;
+            index = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("N-gram item index rebuilt: {} items", rebuilt.size());
+    }
+
+    private void apply(Consumer<NgramIndex> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (changesDuringRebuild != null)
+                changesDuringRebuild.add(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.utils.DatabasePlatform;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static ru.practicum.shareit.utils.Pagination.makePageRequest;
+
+/**
+ * Поиск по подстроке без учета регистра, как в LIKE-режиме, но через GIN-индексы pg_trgm.
+ * На H2 работает обычный поиск по подстроке.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.mode", havingValue = "trigram")
+public class TrigramItemSearch extends LikeItemSearch {
+    private final DatabasePlatform databasePlatform;
+
+    public TrigramItemSearch(ItemRepository itemRepository, DatabasePlatform databasePlatform) {
+        super(itemRepository);
+        this.databasePlatform = databasePlatform;
+        if (!databasePlatform.isPostgres())
+            log.warn("Trigram item search requires PostgreSQL, falling back to substring search");
+    }
+
+    @Override
+    public List<ItemDto> search(String text, Integer from, Integer size) {
+        if (!databasePlatform.isPostgres())
+            return super.search(text, from, size);
+        var pattern = toSubstringPattern(text);
+        var pageRequest = makePageRequest(from, size, Sort.unsorted());
+        var items = pageRequest == null
+                ? itemRepository.searchTrigram(pattern)
+                : itemRepository.searchTrigram(pattern, pageRequest);
+        return items.stream()
+                .map(ItemMapper::mapToItemDto)
+                .collect(toList());
+    }
+
+    @Override
+    public List<ItemDto> searchAfter(String text, Long afterId, Limit limit) {
+        if (!databasePlatform.isPostgres())
+            return super.searchAfter(text, afterId, limit);
+        return itemRepository.searchTrigramAfter(toSubstringPattern(text), afterId, limit.max())
+                .stream()
+                .map(ItemMapper::mapToItemDto)
+                .collect(toList());
+    }
+
+    static String toSubstringPattern(String text) {
+        return "%" + text
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+}
@@ -3,31 +3,46 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
-import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.utils.CursorPage;
+import ru.practicum.shareit.utils.RowStream;
 
 import java.util.List;
 
 public interface ItemService {
     List<ItemAllFieldsDto> getAllItems(Long userId, Integer from, Integer size);
 
+    RowStream<ItemAllFieldsDto> streamAllItems(Long userId);
+
+    CursorPage<ItemAllFieldsDto> getAllItemsAfter(Long userId, String cursor, Integer size);
+
     List<ItemDto> search(String text, Long userId, Integer from, Integer size);
 
-    ItemDto save(ItemDto itemDto, ItemRequestDto itemRequestDto, Long userId);
+    RowStream<ItemDto> streamSearch(String text);
 
-    CommentDto saveComment(CommentDto commentDto, Long itemId, Long userId);
+    CursorPage<ItemDto> searchAfter(String text, Long userId, String cursor, Integer size);
 
-    List<ItemDto> getItemsByRequests(List<ItemRequest> requests);
+    ItemDto save(ItemDto itemDto, ItemRequestDto itemRequestDto, Long userId);
 
-    List<ItemDto> getItemsByRequestId(Long requestId);
+    List<ItemBatchResultDto> saveAll(List<ItemDto> itemDtos, Long userId);
+
+    CommentDto saveComment(CommentDto commentDto, Long itemId, Long userId);
 
     List<CommentDto> getAllComments(Long itemId);
 
-    ItemDto update(ItemDto itemDto, Long userId);
+    default ItemDto update(ItemDto itemDto, Long userId) {
+        return update(itemDto, userId, null);
+    }
+
+    // expectedVersion из If-Match: при несовпадении версии изменение не выполняется
+    ItemDto update(ItemDto itemDto, Long userId, Long expectedVersion);
 
     ItemAllFieldsDto get(Long id, Long userId);
 
+    List<ItemAllFieldsDto> getAllById(List<Long> ids, Long userId);
+
     List<CommentDto> getAllComments();
 
     void delete(Long itemId);
@@ -5,48 +5,70 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
-import ru.practicum.shareit.booking.enums.BookingTimeState;
+import ru.practicum.shareit.booking.dto.ItemBookingSummaryDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemJdbcRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.CursorPage;
+import ru.practicum.shareit.utils.OptimisticRetry;
+import ru.practicum.shareit.utils.ReadPaths;
+import ru.practicum.shareit.utils.RowStream;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.Objects;
 
 import static java.time.LocalDateTime.now;
 import static java.util.Collections.emptyList;
-import static java.util.Comparator.comparing;
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 import static ru.practicum.shareit.item.mapper.CommentMapper.mapToComment;
 import static ru.practicum.shareit.item.mapper.CommentMapper.mapToCommentDto;
 import static ru.practicum.shareit.item.mapper.ItemMapper.*;
 import static ru.practicum.shareit.user.mapper.UserMapper.mapToUser;
-import static ru.practicum.shareit.utils.Pagination.makePageRequest;
+import static ru.practicum.shareit.utils.ETags.checkVersion;
+import static ru.practicum.shareit.utils.MultiGet.checkIds;
+import static ru.practicum.shareit.utils.MultiGet.orderByIds;
+import static ru.practicum.shareit.utils.Pagination.*;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int STREAM_BATCH_SIZE = 100;
     private final CommentRepository commentRepository;
     private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
     private final BookingService bookingService;
     private final UserService userService;
+    private final ItemSearch itemSearch;
+    private final ItemJdbcRepository itemJdbcRepository;
+    private final ReadPaths readPaths;
+    private final OptimisticRetry optimisticRetry;
 
     @Override
     @Transactional
@@ -54,30 +76,89 @@ public class ItemServiceImpl implements ItemService {
 
         var user = mapToUser(userService.get(userId));
         var item = mapToItem(itemDto);
+        item.setId(null);
         item.setOwner(user);
         if (itemRequestDto != null)
             item.setRequest(ItemRequestMapper.mapToItemRequest(
-                    itemRequestDto, userService.get(itemRequestDto.getRequesterId())));
-        var save = itemRepository.save(item);
-        return mapToItemDto(save);
+                    itemRequestDto, UserDto.builder().id(itemRequestDto.getRequesterId()).build()));
+        var saved = mapToItemDto(itemRepository.save(item));
+        itemSearch.index(saved);
+        return saved;
     }
 
     @Override
     @Transactional
-    public ItemDto update(ItemDto itemDto, Long userId) {
+    public List<ItemBatchResultDto> saveAll(List<ItemDto> itemDtos, Long userId) {
+        if (itemDtos == null || itemDtos.isEmpty())
+            throw new ValidationException("Список вещей пуст");
+        if (itemDtos.size() > MAX_BATCH_SIZE)
+            throw new ValidationException("За один запрос можно создать не больше " + MAX_BATCH_SIZE + " вещей");
+        var owner = mapToUser(userService.get(userId));
+        var requests = itemRequestRepository.findAllById(itemDtos.stream()
+                        .map(ItemDto::getRequestId)
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .collect(toList()))
+                .stream()
+                .collect(toMap(ItemRequest::getId, identity()));
+
+        var results = new ArrayList<ItemBatchResultDto>();
+        var items = new ArrayList<Item>();
+        for (int index = 0; index < itemDtos.size(); index++) {
+            var itemDto = itemDtos.get(index);
+            var error = validate(itemDto);
+            if (error != null) {
+                results.add(ItemBatchResultDto.builder().index(index).status(400).error(error).build());
+                continue;
+            }
+            if (itemDto.getRequestId() != null && !requests.containsKey(itemDto.getRequestId())) {
+                results.add(ItemBatchResultDto.builder()
+                        .index(index)
+                        .status(404)
+                        .error("Запрос с ID#" + itemDto.getRequestId() + " не существует")
+                        .build());
+                continue;
+            }
+            var item = mapToItem(itemDto);
+            item.setId(null);
+            item.setOwner(owner);
+            item.setRequest(itemDto.getRequestId() != null ? requests.get(itemDto.getRequestId()) : null);
+            items.add(item);
+            results.add(ItemBatchResultDto.builder().index(index).status(201).build());
+        }
+
+        var saved = itemRepository.saveAll(items).iterator();
+        for (var result : results) {
+            if (result.getStatus() != 201) continue;
+            result.setItem(mapToItemDto(saved.next()));
+            itemSearch.index(result.getItem());
+        }
+        log.debug("Created {} of {} items for user {}", items.size(), itemDtos.size(), userId);
+        return results;
+    }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ItemDto update(ItemDto itemDto, Long userId, Long expectedVersion) {
+        return optimisticRetry.execute(expectedVersion, () -> updateOnce(itemDto, userId, expectedVersion));
+    }
+
+    private ItemDto updateOnce(ItemDto itemDto, Long userId, Long expectedVersion) {
         var item = itemRepository.findById(itemDto.getId()).orElseThrow(
                 () -> new NotFoundException("Вещь с id#" + itemDto.getId() + " не существует"));
         if (!item.getOwner().getId().equals(userId))
             throw new NotFoundException("У вещи другой пользователь");
+        checkVersion(expectedVersion, item.getVersion());
         if (itemDto.getName() != null)
             item.setName(itemDto.getName());
         if (itemDto.getDescription() != null)
             item.setDescription(itemDto.getDescription());
         if (itemDto.getAvailable() != null)
             item.setAvailable(itemDto.getAvailable());
-        var save = itemRepository.save(item);
-        return mapToItemDto(save);
+        // сразу в БД: конфликт версий ловится здесь, а в ответ уходит новая версия
+        var saved = mapToItemDto(itemRepository.saveAndFlush(item));
+        itemSearch.index(saved);
+        return saved;
     }
 
     @Override
@@ -88,53 +169,100 @@ public class ItemServiceImpl implements ItemService {
         log.debug("Item found: {}", item);
         var comments = getAllComments(id);
         log.debug("Comments fetched for item id {}: {}", id, comments);
-        var bookings = bookingService.getBookingsByItem(item.getId(), userId);
-        log.debug("Bookings fetched for item id {}: {}", id, bookings);
+        var summary = item.getOwner().getId().equals(userId)
+                ? bookingService.getBookingSummaries(List.of(id)).get(0)
+                : null;
+        log.debug("Booking summary fetched for item id {}: {}", id, summary);
         return mapToItemAllFieldsDto(item,
-                getLastItem(bookings),
-                getNextItem(bookings),
+                summary != null ? summary.getLastBooking() : null,
+                summary != null ? summary.getNextBooking() : null,
                 comments);
 
     }
 
+    @Override
+    public List<ItemAllFieldsDto> getAllById(List<Long> ids, Long userId) {
+        var itemIds = checkIds(ids);
+        var items = orderByIds(itemIds, itemRepository.findAllById(itemIds), Item::getId);
+        if (items.isEmpty()) return emptyList();
+
+        // последнее и следующее бронирование, как и в get, показываются только владельцу
+        var ownItemIds = items.stream()
+                .filter(item -> item.getOwner().getId().equals(userId))
+                .map(Item::getId)
+                .collect(toList());
+        var summaries = ownItemIds.isEmpty()
+                ? Map.<Long, ItemBookingSummaryDto>of()
+                : bookingService.getBookingSummaries(ownItemIds)
+                .stream()
+                .collect(toMap(ItemBookingSummaryDto::getItemId, identity()));
+        var comments = commentRepository.findCommentByItem_IdInOrderByCreated(
+                        items.stream().map(Item::getId).collect(toList()))
+                .stream()
+                .map(CommentMapper::mapToCommentDto)
+                .collect(groupingBy(CommentDto::getItemId));
+        return items.stream()
+                .map(item -> {
+                    var summary = summaries.get(item.getId());
+                    return ItemMapper.mapToItemAllFieldsDto(item,
+                            summary != null ? summary.getLastBooking() : null,
+                            summary != null ? summary.getNextBooking() : null,
+                            comments.get(item.getId()));
+                })
+                .collect(toList());
+    }
+
     @Override
     public void delete(Long id) {
         itemRepository.deleteById(id);
+        itemSearch.remove(id);
     }
 
     @Override
     public List<ItemAllFieldsDto> getAllItems(Long userId, Integer from, Integer size) {
-        Stream<Item> stream;
-
-        var bookings = bookingService.getBookingsByOwnerId(userId, BookingTimeState.valueOf("ALL"), 0, Integer.MAX_VALUE)
-                .stream()
-                .collect(groupingBy((BookingAllFieldsDto bookingAllFieldsDto) -> bookingAllFieldsDto.getItem().getId()));
-        var comments = getAllComments().stream()
-                .collect(groupingBy(CommentDto::getItemId));
+        userService.get(userId);
         var pageRequest = makePageRequest(from, size, Sort.by("id").ascending());
-        if (pageRequest == null)
-            stream = itemRepository.findAllByOwner_IdIs(userId).stream();
-        else
-            stream = itemRepository.findAllByOwner_IdIs(userId, pageRequest).stream();
-        return stream.map(item -> ItemMapper.mapToItemAllFieldsDto(item,
-                        getLastItem(bookings.get(item.getId())),
-                        getNextItem(bookings.get(item.getId())),
-                        comments.get(item.getId())))
-                .collect(toList());
+        if (readPaths.isJdbcItems())
+            return mapRowsToItemAllFieldsDtos(itemJdbcRepository.findByOwner(userId, pageRequest));
+        var items = pageRequest == null
+                ? itemRepository.findAllByOwner_IdIs(userId)
+                : itemRepository.findAllByOwner_IdIs(userId, pageRequest).getContent();
+        return mapToItemAllFieldsDtos(items);
+    }
+
+    @Override
+    public RowStream<ItemAllFieldsDto> streamAllItems(Long userId) {
+        userService.get(userId);
+        return itemJdbcRepository.streamByOwner(userId)
+                .mapBatches(STREAM_BATCH_SIZE, this::mapRowsToItemAllFieldsDtos);
+    }
+
+    @Override
+    public CursorPage<ItemAllFieldsDto> getAllItemsAfter(Long userId, String cursor, Integer size) {
+        var limit = makeLimit(size);
+        userService.get(userId);
+        var items = itemRepository.findAllByOwner_IdIsAndIdGreaterThanOrderById(userId, parseIdCursor(cursor), limit);
+        return makeCursorPage(mapToItemAllFieldsDtos(items), limit, item -> item.getId().toString());
     }
 
     @Override
     public List<ItemDto> search(String text, Long userId, Integer from, Integer size) {
-        Stream<Item> stream;
         if (text.isBlank()) return emptyList();
-        var pageRequest = makePageRequest(from, size, Sort.by("id").ascending());
-        if (pageRequest == null)
-            stream = itemRepository.search(text).stream();
-        else
-            stream = itemRepository.search(text, pageRequest).stream();
-        return stream
-                .map(ItemMapper::mapToItemDto)
-                .collect(toList());
+        return itemSearch.search(text, from, size);
+    }
+
+    @Override
+    public RowStream<ItemDto> streamSearch(String text) {
+        if (text.isBlank()) return RowStream.of(emptyList());
+        return itemSearch.stream(text);
+    }
+
+    @Override
+    public CursorPage<ItemDto> searchAfter(String text, Long userId, String cursor, Integer size) {
+        var limit = makeLimit(size);
+        if (text.isBlank()) return new CursorPage<>(emptyList(), null);
+        var items = itemSearch.searchAfter(text, parseIdCursor(cursor), limit);
+        return makeCursorPage(items, limit, item -> item.getId().toString());
     }
 
     @Override
@@ -187,40 +315,55 @@ public class ItemServiceImpl implements ItemService {
                 .collect(toList());
     }
 
-    @Override
-    public List<ItemDto> getItemsByRequestId(Long requestId) {
-        return itemRepository.findAllByRequest_IdIs(requestId)
-                .stream()
-                .map(ItemMapper::mapToItemDto)
-                .collect(toList());
+    public static String validate(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank())
+            return "Название вещи не может быть пустым";
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank())
+            return "Описание вещи не может быть пустым";
+        if (itemDto.getAvailable() == null)
+            return "Не указана доступность вещи";
+        return null;
     }
 
-    @Override
-    public List<ItemDto> getItemsByRequests(List<ItemRequest> requests) {
-        return itemRepository.findAllByRequestIn(requests)
+    private List<ItemAllFieldsDto> mapToItemAllFieldsDtos(List<Item> items) {
+        if (items.isEmpty()) return emptyList();
+
+        var itemIds = items.stream()
+                .map(Item::getId)
+                .collect(toList());
+        var summaries = bookingService.getBookingSummaries(itemIds)
+                .stream()
+                .collect(toMap(ItemBookingSummaryDto::getItemId, identity()));
+        var comments = commentRepository.findCommentByItem_IdInOrderByCreated(itemIds)
                 .stream()
-                .map(ItemMapper::mapToItemDto)
+                .map(CommentMapper::mapToCommentDto)
+                .collect(groupingBy(CommentDto::getItemId));
+        return items.stream()
+                .map(item -> ItemMapper.mapToItemAllFieldsDto(item,
+                        summaries.get(item.getId()).getLastBooking(),
+                        summaries.get(item.getId()).getNextBooking(),
+                        comments.get(item.getId())))
                 .collect(toList());
     }
 
-    private BookingAllFieldsDto getNextItem(List<BookingAllFieldsDto> bookings) {
-        if (bookings != null)
-            return bookings.stream()
-                    .filter(booking -> booking.getStart().isAfter(now()))
-                    .min(comparing(BookingAllFieldsDto::getEnd))
-                    .orElse(null);
-        else
-            return null;
-    }
 
-    private BookingAllFieldsDto getLastItem(List<BookingAllFieldsDto> bookings) {
-        if (bookings != null)
-            return bookings.stream()
-                    .filter(booking -> booking.getEnd().isBefore(now()))
-                    .max(comparing(BookingAllFieldsDto::getEnd))
-                    .orElse(null);
-        else
-            return null;
-    }
+    private List<ItemAllFieldsDto> mapRowsToItemAllFieldsDtos(List<ItemDto> items) {
+        if (items.isEmpty()) return emptyList();
 
+        var itemIds = items.stream()
+                .map(ItemDto::getId)
+                .collect(toList());
+        var summaries = bookingService.getBookingSummaries(itemIds)
+                .stream()
+                .collect(toMap(ItemBookingSummaryDto::getItemId, identity()));
+        var comments = itemJdbcRepository.findComments(itemIds)
+                .stream()
+                .collect(groupingBy(CommentDto::getItemId));
+        return items.stream()
+                .map(item -> ItemMapper.mapToItemAllFieldsDto(item,
+                        summaries.get(item.getId()).getLastBooking(),
+                        summaries.get(item.getId()).getNextBooking(),
+                        comments.get(item.getId())))
+                .collect(toList());
+    }
 }
@@ -22,7 +22,9 @@ public class ItemRequest {
     private Long id;
     @Column(nullable = false)
     private String description;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "requester_id", nullable = false)
     private User requester;
     @Column(name = "created", nullable = false)
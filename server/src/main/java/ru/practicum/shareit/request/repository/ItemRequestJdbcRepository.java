@@ -0,0 +1,93 @@
+package ru.practicum.shareit.request.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.utils.DatabasePlatform;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Запросы вместе с вещами, созданными в ответ на них, одним SQL-запросом: вещи каждого запроса
+ * собираются в JSON-массив (json_agg на PostgreSQL, JSON_ARRAYAGG на H2) и разбираются сразу в ItemDto.
+ */
+@Repository
+public class ItemRequestJdbcRepository {
+    private static final String POSTGRES_ITEMS = "(SELECT json_agg(json_build_object(" +
+            "'id', item.id, 'name', item.name, 'description', item.description, 'available', item.available, " +
+            "'ownerId', item.owner_id, 'requestId', item.request_id) ORDER BY item.id) " +
+            "FROM items item WHERE item.request_id = request.id) AS items ";
+    private static final String H2_ITEMS = "(SELECT JSON_ARRAYAGG(JSON_OBJECT(" +
+            "'id': item.id, 'name': item.name, 'description': item.description, 'available': item.available, " +
+            "'ownerId': item.owner_id, 'requestId': item.request_id) ORDER BY item.id) " +
+            "FROM items item WHERE item.request_id = request.id) AS items ";
+    private static final String ORDER = " ORDER BY request.created DESC, request.id";
+    private static final TypeReference<List<ItemDto>> ITEMS_TYPE = new TypeReference<>() {
+    };
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final String selectQuery;
+
+    public ItemRequestJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                     ObjectMapper objectMapper,
+                                     DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.selectQuery = "SELECT request.id, request.description, request.requester_id, request.created, " +
+                (databasePlatform.isPostgres() ? POSTGRES_ITEMS : H2_ITEMS) +
+                "FROM requests request ";
+    }
+
+    public Optional<ItemRequestDto> findById(Long requestId) {
+        return jdbcTemplate.query(selectQuery + "WHERE request.id = :requestId",
+                        new MapSqlParameterSource("requestId", requestId),
+                        this::mapRow)
+                .stream()
+                .findFirst();
+    }
+
+    public List<ItemRequestDto> findByRequester(Long requesterId) {
+        return jdbcTemplate.query(selectQuery + "WHERE request.requester_id = :userId" + ORDER,
+                new MapSqlParameterSource("userId", requesterId),
+                this::mapRow);
+    }
+
+    public List<ItemRequestDto> findByRequesterNot(Long userId, PageRequest pageRequest) {
+        var parameters = new MapSqlParameterSource("userId", userId);
+        var sql = selectQuery + "WHERE request.requester_id <> :userId" + ORDER;
+        if (pageRequest != null) {
+            sql += " LIMIT :limit OFFSET :offset";
+            parameters.addValue("limit", pageRequest.getPageSize())
+                    .addValue("offset", pageRequest.getOffset());
+        }
+        return jdbcTemplate.query(sql, parameters, this::mapRow);
+    }
+
+    private ItemRequestDto mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+        return ItemRequestDto.builder()
+                .id(resultSet.getLong("id"))
+                .description(resultSet.getString("description"))
+                .requesterId(resultSet.getLong("requester_id"))
+                .created(resultSet.getTimestamp("created").toLocalDateTime())
+                .items(parseItems(resultSet.getString("items")))
+                .build();
+    }
+
+    private List<ItemDto> parseItems(String json) {
+        if (json == null) return List.of();
+        try {
+            return objectMapper.readValue(json, ITEMS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot parse aggregated items: " + json, e);
+        }
+    }
+}
@@ -39,4 +39,9 @@ public class UserController {
     public List<UserDto> getAll() {
         return userService.getAll();
     }
+
+    @GetMapping(params = "ids")
+    public List<UserDto> getAllById(@RequestParam List<Long> ids) {
+        return userService.getAllById(ids);
+    }
 }
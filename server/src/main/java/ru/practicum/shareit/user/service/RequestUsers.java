@@ -0,0 +1,52 @@
+package ru.practicum.shareit.user.service;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
+
+/**
+ * Пользователи, уже найденные в рамках текущего HTTP-запроса: X-Sharer-User-Id проверяется один раз,
+ * дальше сервисы получают готовый UserDto. Вне запроса (импорт, планировщик, тесты сервисов) ничего не запоминает.
+ */
+class RequestUsers {
+    private static final String ATTRIBUTE = RequestUsers.class.getName();
+
+    static UserDto get(Long userId, Function<Long, UserDto> loader) {
+        var users = users();
+        if (users == null) return loader.apply(userId);
+        var userDto = users.get(userId);
+        if (userDto == null) {
+            userDto = loader.apply(userId);
+            users.put(userId, userDto);
+        }
+        return userDto;
+    }
+
+    static void put(UserDto userDto) {
+        var users = users();
+        if (users != null && userDto != null) users.put(userDto.getId(), userDto);
+    }
+
+    static void remove(Long userId) {
+        var users = users();
+        if (users != null) users.remove(userId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Long, UserDto> users() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) return null;
+        var users = (Map<Long, UserDto>) attributes.getAttribute(ATTRIBUTE, SCOPE_REQUEST);
+        if (users == null) {
+            users = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE, users, SCOPE_REQUEST);
+        }
+        return users;
+    }
+}
@@ -15,4 +15,6 @@ public interface UserService {
     void delete(Long userId);
 
     List<UserDto> getAll();
+
+    List<UserDto> getAllById(List<Long> ids);
 }
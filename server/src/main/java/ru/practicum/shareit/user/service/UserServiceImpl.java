@@ -1,17 +1,23 @@
 package ru.practicum.shareit.user.service;
 
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.error.EmailException;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.error.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
@@ -19,6 +25,8 @@ import java.util.List;
 import static java.util.stream.Collectors.toList;
 import static ru.practicum.shareit.user.mapper.UserMapper.mapToUser;
 import static ru.practicum.shareit.user.mapper.UserMapper.mapToUserDto;
+import static ru.practicum.shareit.utils.MultiGet.checkIds;
+import static ru.practicum.shareit.utils.MultiGet.orderByIds;
 
 @Slf4j
 @Service
@@ -26,8 +34,10 @@ import static ru.practicum.shareit.user.mapper.UserMapper.mapToUserDto;
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final EntityManagerFactory entityManagerFactory;
 
-    private void validate(UserDto userDto) {
+    public static void validate(UserDto userDto) {
         if (userDto.getEmail() == null)
             throw new ValidationException("Email cannot be empty.");
         if (userDto.getEmail().isBlank() || !userDto.getEmail().contains("@"))
@@ -58,7 +68,9 @@ public class UserServiceImpl implements UserService {
         if (userDto.getEmail() != null) user.setEmail(userDto.getEmail());
 
         try {
-            return mapToUserDto(userRepository.save(user));
+            var updated = mapToUserDto(userRepository.save(user));
+            RequestUsers.put(updated);
+            return updated;
         } catch (DataIntegrityViolationException e) {
             if (e.getCause() instanceof ConstraintViolationException) {
                 throw new EmailException("Пользователь с email: " + userDto.getEmail() + " уже существует. ");
@@ -69,16 +81,22 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDto get(Long userId) {
-        var user = userRepository.findById(userId).orElseThrow(() -> {
-            throw new NotFoundException("Пользователь с ID #" + userId + " не существует.");
+        return RequestUsers.get(userId, id -> {
+            var user = userRepository.findById(id).orElseThrow(() -> {
+                throw new NotFoundException("Пользователь с ID #" + id + " не существует.");
+            });
+            return mapToUserDto(user);
         });
-        return mapToUserDto(user);
     }
 
     @Override
     @Transactional
     public void delete(Long userId) {
+        // вещи удаляются каскадом в БД, мимо Hibernate, и остались бы в кэше второго уровня
+        var itemIds = itemRepository.findIdsDeletedWithUser(userId);
         userRepository.deleteById(userId);
+        RequestUsers.remove(userId);
+        afterCommit(() -> itemIds.forEach(itemId -> entityManagerFactory.getCache().evict(Item.class, itemId)));
     }
 
     @Override
@@ -88,4 +106,26 @@ public class UserServiceImpl implements UserService {
                 .map(UserMapper::mapToUserDto)
                 .collect(toList());
     }
+
+    @Override
+    public List<UserDto> getAllById(List<Long> ids) {
+        var userIds = checkIds(ids);
+        return orderByIds(userIds, userRepository.findAllById(userIds), User::getId)
+                .stream()
+                .map(UserMapper::mapToUserDto)
+                .collect(toList());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
\ No newline at end of file
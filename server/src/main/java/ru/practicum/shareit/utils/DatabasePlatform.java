@@ -0,0 +1,23 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Component
+public class DatabasePlatform {
+    private final boolean postgres;
+
+    public DatabasePlatform(DataSource dataSource) {
+        try (var connection = dataSource.getConnection()) {
+            postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot detect database platform", e);
+        }
+    }
+
+    public boolean isPostgres() {
+        return postgres;
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.error.PreconditionFailedException;
+import ru.practicum.shareit.error.ValidationException;
+
+/**
+ * ETag ответа — версия строки (@Version), If-Match условного PATCH — ожидаемая версия.
+ */
+public class ETags {
+    public static <T> ResponseEntity<T> ok(T body, Long version) {
+        var response = ResponseEntity.ok();
+        if (version != null)
+            response.eTag(of(version));
+        return response.body(body);
+    }
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // null — условия нет: заголовок не передан или If-Match: *
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*"))
+            return null;
+        var value = ifMatch.trim();
+        if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\""))
+            value = value.substring(1, value.length() - 1);
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Некорректный заголовок If-Match: " + ifMatch);
+        }
+    }
+
+    public static void checkVersion(Long expectedVersion, Long version) {
+        if (expectedVersion != null && !expectedVersion.equals(version))
+            throw new PreconditionFailedException("Версия изменилась: ожидалась " + expectedVersion
+                    + ", текущая " + version);
+    }
+}
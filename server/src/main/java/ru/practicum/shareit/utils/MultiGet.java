@@ -0,0 +1,41 @@
+package ru.practicum.shareit.utils;
+
+import ru.practicum.shareit.error.ValidationException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Выборка по списку id одним запросом: результат идет в порядке запрошенных id,
+ * без повторов; несуществующие и недоступные записи просто пропускаются.
+ */
+public class MultiGet {
+    public static final int MAX_IDS = 100;
+
+    public static List<Long> checkIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty())
+            throw new ValidationException("Список id пуст");
+        var distinct = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(toList());
+        if (distinct.size() > MAX_IDS)
+            throw new ValidationException("За один запрос можно получить не больше " + MAX_IDS + " записей");
+        return distinct;
+    }
+
+    public static <T> List<T> orderByIds(List<Long> ids, Collection<T> found, Function<T, Long> id) {
+        Map<Long, T> byId = found.stream().collect(toMap(id, identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(toList());
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.error.ConflictException;
+import ru.practicum.shareit.error.PreconditionFailedException;
+
+import java.util.function.Supplier;
+
+/**
+ * Короткая транзакция "прочитать — изменить — сохранить" с проверкой версии (@Version).
+ * Без ожидаемой версии при конфликте изменение повторяется на свежих данных, не больше
+ * shareit.optimistic.retry-attempts раз. С ожидаемой версией (If-Match) конфликт означает,
+ * что условие уже не выполнено, и повтора нет. Внутри открытой транзакции повторить нельзя,
+ * действие выполняется один раз.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry {
+    private final TransactionTemplate transactionTemplate;
+    private final int attempts;
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           @Value("${shareit.optimistic.retry-attempts:3}") int attempts) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.attempts = attempts;
+    }
+
+    public <T> T execute(Long expectedVersion, Supplier<T> action) {
+        var inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return inTransaction ? action.get() : transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (expectedVersion != null)
+                    throw new PreconditionFailedException("Данные изменены другим запросом");
+                if (inTransaction || attempt >= attempts)
+                    throw new ConflictException("Данные одновременно изменяются другими запросами, повторите позже");
+                log.debug("Optimistic lock conflict, retrying: attempt {} of {}", attempt + 1, attempts);
+            }
+        }
+    }
+}
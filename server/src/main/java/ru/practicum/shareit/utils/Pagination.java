@@ -1,9 +1,15 @@
 package ru.practicum.shareit.utils;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.error.ValidationException;
 
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.springframework.data.domain.PageRequest.of;
 
 public class Pagination {
@@ -12,4 +18,37 @@ public class Pagination {
         if (size <= 0 || from < 0) throw new ValidationException("size <= 0 || from < 0");
         return of(from / size, size, sort);
     }
+
+    public static Limit makeLimit(Integer size) {
+        if (size == null || size <= 0) throw new ValidationException("size <= 0");
+        return Limit.of(size);
+    }
+
+    public static String makeCursor(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(UTF_8));
+    }
+
+    public static String parseCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Некорректный курсор: " + cursor);
+        }
+    }
+
+    public static Long parseIdCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return 0L;
+        try {
+            return Long.parseLong(parseCursor(cursor));
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Некорректный курсор: " + cursor);
+        }
+    }
+
+    public static <T> CursorPage<T> makeCursorPage(List<T> content, Limit limit, Function<T, String> position) {
+        var nextCursor = content.size() == limit.max()
+                ? makeCursor(position.apply(content.get(content.size() - 1)))
+                : null;
+        return new CursorPage<>(content, nextCursor);
+    }
 }
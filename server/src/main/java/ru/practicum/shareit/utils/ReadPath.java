@@ -0,0 +1,6 @@
+package ru.practicum.shareit.utils;
+
+public enum ReadPath {
+    JPA,
+    JDBC
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Как читать самые нагруженные списки: через сущности JPA или напрямую из ResultSet в DTO.
+ * Переключается отдельно для каждого эндпоинта, поиск выбирается режимом shareit.item.search.mode.
+ */
+@Component
+public class ReadPaths {
+    private final ReadPath bookings;
+    private final ReadPath ownerBookings;
+    private final ReadPath items;
+
+    public ReadPaths(@Value("${shareit.read-path.bookings:jpa}") ReadPath bookings,
+                     @Value("${shareit.read-path.owner-bookings:jpa}") ReadPath ownerBookings,
+                     @Value("${shareit.read-path.items:jpa}") ReadPath items) {
+        this.bookings = bookings;
+        this.ownerBookings = ownerBookings;
+        this.items = items;
+    }
+
+    public boolean isJdbcBookings() {
+        return bookings == ReadPath.JDBC;
+    }
+
+    public boolean isJdbcOwnerBookings() {
+        return ownerBookings == ReadPath.JDBC;
+    }
+
+    public boolean isJdbcItems() {
+        return items == ReadPath.JDBC;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Выборка, которая выполняется только при обходе: строки отдаются по одной и не собираются в список.
+ */
+@FunctionalInterface
+public interface RowStream<T> {
+    void forEach(Consumer<? super T> action);
+
+    static <T> RowStream<T> of(List<T> rows) {
+        return rows::forEach;
+    }
+
+    // Строки копятся порциями, чтобы дополнить каждую порцию одним запросом, а не запросом на строку
+    default <R> RowStream<R> mapBatches(int batchSize, Function<List<T>, List<R>> mapper) {
+        return action -> {
+            var batch = new ArrayList<T>(batchSize);
+            forEach(row -> {
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    mapper.apply(batch).forEach(action);
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty())
+                mapper.apply(batch).forEach(action);
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCountCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Запросы для потоковой выдачи: JDBC-курсор читает строки порциями по shareit.stream.fetch-size.
+ * PostgreSQL держит курсор только внутри транзакции, поэтому обходить RowStream нужно в ней.
+ */
+@Component
+public class RowStreams {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public RowStreams(DataSource dataSource, @Value("${shareit.stream.fetch-size:500}") int fetchSize) {
+        var template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+    public <T> RowStream<T> query(String sql, SqlParameterSource parameters, RowMapper<T> rowMapper) {
+        return action -> jdbcTemplate.query(sql, parameters, new RowCountCallbackHandler() {
+            @Override
+            protected void processRow(ResultSet resultSet, int rowNum) throws SQLException {
+                action.accept(rowMapper.mapRow(resultSet, rowNum));
+            }
+        });
+    }
+}
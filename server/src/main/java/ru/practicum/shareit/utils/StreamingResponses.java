@@ -0,0 +1,63 @@
+package ru.practicum.shareit.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Потоковая выдача списков без from/size (shareit.stream.unpaged): строки пишутся в ответ JSON-массивом
+ * по мере чтения курсором, и память не зависит от размера выборки. Проверки пользователя и статуса сервисы
+ * выполняют до начала записи, поэтому ошибки по-прежнему приходят кодами 400/404.
+ * Ответ записывается целиком здесь, контроллер после этого возвращает null.
+ */
+@Component
+public class StreamingResponses {
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public StreamingResponses(@Value("${shareit.stream.unpaged:false}") boolean enabled,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public boolean applies(Integer from, Integer size) {
+        return enabled && from == null && size == null;
+    }
+
+    public void write(RowStream<?> rows, HttpServletResponse response) {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(UTF_8.name());
+        try (var generator = objectMapper.createGenerator(response.getOutputStream())
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.writeStartArray();
+            transactionTemplate.executeWithoutResult(status -> rows.forEach(row -> write(generator, row)));
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void write(JsonGenerator generator, Object row) {
+        try {
+            generator.writeObject(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+-- в H2 нет ограничений исключения: пересечение одобренных броней проверяет триггер
+CREATE TRIGGER IF NOT EXISTS trg_bookings_approved_overlap
+    BEFORE INSERT, UPDATE ON bookings
+    FOR EACH ROW CALL 'ru.practicum.shareit.booking.repository.BookingOverlapTrigger';
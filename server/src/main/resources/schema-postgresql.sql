@@ -0,0 +1,22 @@
+ALTER TABLE items
+    ADD COLUMN IF NOT EXISTS search_vector TSVECTOR
+        GENERATED ALWAYS AS (setweight(to_tsvector('russian', name), 'A') ||
+                             setweight(to_tsvector('russian', description), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING GIN (search_vector);
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING GIN (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING GIN (description gin_trgm_ops);
+
+-- одобренные брони одной вещи не пересекаются: проверку делает сама БД, без гонки между проверкой и вставкой
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings
+    ADD COLUMN IF NOT EXISTS period TSRANGE
+        GENERATED ALWAYS AS (tsrange(start_date, end_date, '[)')) STORED;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT excl_bookings_item_period
+        EXCLUDE USING GIST (item_id WITH =, period WITH &&) WHERE (status = 'APPROVED');
@@ -3,6 +3,12 @@ DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
 DROP TABLE IF EXISTS requests CASCADE;
+DROP TABLE IF EXISTS item_booking_summary CASCADE;
+DROP SEQUENCE IF EXISTS items_seq;
+
+-- шаг совпадает с allocationSize у Item: Hibernate берет из последовательности блоки id для пакетной вставки,
+-- а вставка без id (DEFAULT) просто занимает свой блок целиком
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users
 (
@@ -24,12 +30,13 @@ CREATE TABLE IF NOT EXISTS requests
 
 CREATE TABLE IF NOT EXISTS items
 (
-    id          BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id          BIGINT DEFAULT nextval('items_seq')     NOT NULL,
     name        VARCHAR(255)                            NOT NULL,
     description VARCHAR(255)                            NOT NULL,
     available   BOOLEAN                                 NOT NULL DEFAULT FALSE,
     owner_id    BIGINT REFERENCES users (id) ON DELETE CASCADE,
     request_id  BIGINT REFERENCES requests (id) ON DELETE CASCADE,
+    version     BIGINT                                  NOT NULL DEFAULT 0,
     CONSTRAINT pk_item PRIMARY KEY (id)
 );
 
@@ -41,6 +48,7 @@ CREATE TABLE IF NOT EXISTS bookings
     item_id    BIGINT REFERENCES items (id) ON DELETE CASCADE,
     booker_id  BIGINT REFERENCES users (id) ON DELETE CASCADE,
     status     VARCHAR(30)                             NOT NULL,
+    version    BIGINT                                  NOT NULL DEFAULT 0,
     CONSTRAINT pk_booking PRIMARY KEY (id)
 );
 
@@ -52,4 +60,30 @@ CREATE TABLE IF NOT EXISTS comments
     author_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
     created   TIMESTAMP                               NOT NULL,
     CONSTRAINT pk_comment PRIMARY KEY (id)
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS item_booking_summary
+(
+    item_id         BIGINT REFERENCES items (id) ON DELETE CASCADE NOT NULL,
+    last_booking_id BIGINT REFERENCES bookings (id) ON DELETE CASCADE,
+    last_booker_id  BIGINT,
+    next_booking_id BIGINT REFERENCES bookings (id) ON DELETE CASCADE,
+    next_booker_id  BIGINT,
+    valid_until     TIMESTAMP,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_valid_until ON item_booking_summary (valid_until);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created DESC);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_end ON bookings (item_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created);
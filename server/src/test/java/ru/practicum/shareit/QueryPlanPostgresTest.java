@@ -0,0 +1,198 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestJdbcRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+import static ru.practicum.shareit.booking.enums.BookingState.WAITING;
+
+
+/**
+ * Планы запросов репозиториев на настоящем PostgreSQL, по имени каждого индекса из schema.sql:
+ * SHAREIT_TEST_POSTGRES_URL=jdbc:postgresql://localhost:6541/shareit mvn test
+ * PostgreSQL не индексирует внешние ключи сам, поэтому без индекса запрос уходит в Seq Scan
+ * и имени индекса в плане нет. Данные вставляются в транзакции теста и откатываются.
+ */
+@Transactional
+@SpringBootTest(properties = {
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.datasource.url=${SHAREIT_TEST_POSTGRES_URL}",
+        "spring.datasource.username=${SHAREIT_TEST_POSTGRES_USER:shareit}",
+        "spring.datasource.password=${SHAREIT_TEST_POSTGRES_PASSWORD:shareit}",
+        "spring.sql.init.schema-locations=classpath:schema.sql,classpath:schema-postgresql.sql",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.SqlRecorder"})
+@EnabledIfEnvironmentVariable(named = "SHAREIT_TEST_POSTGRES_URL", matches = ".+")
+class QueryPlanPostgresTest {
+    private static final int USERS = 200;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestJdbcRepository itemRequestJdbcRepository;
+    @SpyBean
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+    private User user;
+    private Item item;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (name, email) " +
+                "SELECT 'User ' || n, 'user' || n || '@plan.test' FROM generate_series(1, ?) n", USERS);
+        var firstUser = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM users WHERE email LIKE '%@plan.test'", Long.class);
+        jdbcTemplate.update("INSERT INTO requests (description, requester_id, created) " +
+                "SELECT 'Request ' || n, ? + n % ?, CURRENT_DATE - n % 30 FROM generate_series(1, 2000) n",
+                firstUser, USERS);
+        var firstRequest = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM requests WHERE requester_id >= ?", Long.class, firstUser);
+        jdbcTemplate.update("INSERT INTO items (name, description, available, owner_id, request_id) " +
+                "SELECT 'Item ' || n, 'Description ' || n, n % 2 = 0, ? + n % ?, " +
+                "CASE WHEN n % 10 = 0 THEN ? + n % 2000 END FROM generate_series(1, 20000) n",
+                firstUser, USERS, firstRequest);
+        // одна одобренная бронь на вещь: ограничение на пересечение одобренных броней не мешает
+        jdbcTemplate.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "SELECT now() + (k * 30 - 45) * interval '1 day', now() + (k * 30 - 44) * interval '1 day', " +
+                "item.id, ? + (item.id + k) % ?, " +
+                "CASE k WHEN 1 THEN 'APPROVED' WHEN 2 THEN 'REJECTED' ELSE 'WAITING' END " +
+                "FROM items item CROSS JOIN generate_series(0, 3) k WHERE item.owner_id >= ?",
+                firstUser, USERS, firstUser);
+        jdbcTemplate.update("INSERT INTO comments (text, item_id, author_id, created) " +
+                "SELECT 'Comment', item.id, ?, now() FROM items item WHERE item.owner_id >= ?",
+                firstUser, firstUser);
+        jdbcTemplate.update("INSERT INTO item_booking_summary (item_id, valid_until) " +
+                "SELECT item.id, now() + (item.id % 100 - 1) * interval '1 day' " +
+                "FROM items item WHERE item.owner_id >= ?", firstUser);
+        jdbcTemplate.execute("ANALYZE users, requests, items, bookings, comments, item_booking_summary");
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+        user = entityManager.find(User.class, firstUser);
+        item = entityManager.find(Item.class, jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM items WHERE owner_id = ?", Long.class, firstUser));
+    }
+
+    @Test
+    void bookingQueriesUseIndexesTest() {
+        assertUsesIndex("idx_bookings_booker_start",
+                () -> bookingRepository.findBookingsByBookerIsOrderByStartDesc(user));
+        assertUsesIndex("idx_bookings_booker_status_start",
+                () -> bookingRepository.findBookingsByBookerIsAndStatusIsOrderByStartDesc(user, WAITING));
+        assertUsesIndex("idx_bookings_item_start",
+                () -> bookingRepository.findBookingsByItem_IdAndItem_Owner_IdIsOrderByStart(
+                        item.getId(), user.getId()));
+        assertUsesIndex("idx_bookings_item_end",
+                () -> bookingRepository.findLastBookingsByItemIds(List.of(item.getId()), now()));
+        assertUsesIndex("idx_bookings_item_status_end",
+                () -> bookingRepository.existsByItem_IdAndStatusAndStartBeforeAndEndAfter(
+                        item.getId(), APPROVED, now().plusDays(1), now()));
+        assertUsesIndex("idx_item_booking_summary_valid_until",
+                () -> summaryRepository.findExpiredItemIds(now()));
+    }
+
+    @Test
+    void itemQueriesUseIndexesTest() {
+        assertUsesIndex("idx_items_owner", () -> itemRepository.findAllByOwner_IdIs(user.getId()));
+        assertUsesIndex("idx_comments_item_created",
+                () -> commentRepository.findCommentByItem_IdIsOrderByCreated(item.getId()));
+    }
+
+    @Test
+    void itemRequestQueriesUseIndexesTest() {
+        clearInvocations(namedParameterJdbcTemplate);
+        itemRequestJdbcRepository.findByRequester(user.getId());
+        var sql = ArgumentCaptor.forClass(String.class);
+        var parameters = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(namedParameterJdbcTemplate).query(sql.capture(), parameters.capture(), any(RowMapper.class));
+
+        var plan = String.join("\n", namedParameterJdbcTemplate.queryForList(
+                "EXPLAIN " + sql.getValue(), parameters.getValue(), String.class));
+
+        assertThat(sql.getValue(), plan,
+                allOf(containsString("idx_requests_requester_created"), containsString("idx_items_request")));
+    }
+
+    private void assertUsesIndex(String index, Runnable query) {
+        SqlRecorder.STATEMENTS.clear();
+        query.run();
+        var statements = new ArrayList<>(SqlRecorder.STATEMENTS);
+        var plans = new StringBuilder();
+        for (String sql : statements)
+            plans.append(jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+                try (var statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                    bindSampleParameters(statement);
+                    return readPlan(statement);
+                }
+            }));
+        assertThat(String.join("\n", statements), plans.toString(), containsString(index));
+    }
+
+    // Значения под тип параметра: для выбора индекса важен не сам id, а то, что условие выборочное
+    private void bindSampleParameters(PreparedStatement statement) throws SQLException {
+        var metaData = statement.getParameterMetaData();
+        for (int i = 1; i <= metaData.getParameterCount(); i++) {
+            switch (metaData.getParameterType(i)) {
+                case Types.BIGINT, Types.INTEGER, Types.SMALLINT -> statement.setLong(i, user.getId());
+                case Types.TIMESTAMP -> statement.setTimestamp(i, Timestamp.valueOf(now()));
+                case Types.DATE -> statement.setDate(i, Date.valueOf(LocalDate.now()));
+                case Types.BOOLEAN, Types.BIT -> statement.setBoolean(i, true);
+                case Types.VARCHAR -> statement.setString(i, WAITING.name());
+                default -> statement.setNull(i, metaData.getParameterType(i));
+            }
+        }
+    }
+
+    private static String readPlan(PreparedStatement statement) throws SQLException {
+        var plan = new StringBuilder();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next())
+                plan.append(resultSet.getString(1)).append('\n');
+        }
+        return plan.toString();
+    }
+}
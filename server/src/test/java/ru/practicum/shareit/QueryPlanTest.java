@@ -0,0 +1,205 @@
+package ru.practicum.shareit;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+import static ru.practicum.shareit.booking.enums.BookingState.WAITING;
+
+
+// Проверяет по EXPLAIN, что запросы репозиториев идут по индексам, а не полным сканированием таблиц, и что
+// там, где H2 их выбирает, используются составные индексы из schema.sql. Полностью, по имени каждого индекса,
+// планы проверяет QueryPlanPostgresTest: PostgreSQL, в отличие от H2, не индексирует внешние ключи сам.
+// Поиск по подстроке, выборка всех доступных вещей и запросы "чужих" заявок сканируют таблицу по своей природе
+// и здесь не проверяются. Заявки с вещами читает ItemRequestJdbcRepository, его план проверяет только
+// QueryPlanPostgresTest.
+@TestInstance(PER_CLASS)
+// данные фиксируются один раз на класс; кэш второго уровня общий для контекстов тестов,
+// и закэшированные отсюда вещи подменили бы вещи с теми же id в базах других контекстов
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.shareit.SqlRecorder"})
+class QueryPlanTest {
+    private static final String TABLE_SCAN = ".tableScan";
+    private static final PageRequest PAGE = PageRequest.of(0, 10, Sort.by("start").descending());
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    private User owner;
+    private User booker;
+    private Item item;
+    private ItemRequest request;
+
+    // Данные коммитятся один раз на класс: ANALYZE в H2 завершает транзакцию. По собранной им статистике
+    // H2 выбирает составные индексы, без нее — индексы внешних ключей, которые H2 создает сам.
+    @BeforeAll
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> persistAll());
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager.getEntityManager().createNativeQuery("ANALYZE").executeUpdate());
+    }
+
+    private void persistAll() {
+        owner = entityManager.persist(User.builder().name("Lora").email("lora@mail.com").build());
+        booker = entityManager.persist(User.builder().name("Mike").email("mike@mail.com").build());
+        request = entityManager.persist(ItemRequest.builder()
+                .description("pen")
+                .requester(booker)
+                .created(now())
+                .build());
+        for (int i = 0; i < 20; i++) {
+            item = entityManager.persist(Item.builder()
+                    .name("pen" + i)
+                    .description("blue pen")
+                    .available(true)
+                    .owner(i % 2 == 0 ? owner : booker)
+                    .request(i % 5 == 0 ? request : null)
+                    .build());
+            entityManager.persist(Booking.builder()
+                    .start(now().plusDays(i - 10))
+                    .end(now().plusDays(i - 9))
+                    .item(item)
+                    .booker(i % 2 == 0 ? booker : owner)
+                    .status(i % 3 == 0 ? APPROVED : WAITING)
+                    .build());
+            entityManager.persist(Comment.builder()
+                    .text("good")
+                    .item(item)
+                    .author(booker)
+                    .created(now())
+                    .build());
+        }
+    }
+
+    @Test
+    void bookerQueriesUseIndexes() {
+        assertUsesIndexes(() -> bookingRepository.findBookingsByBookerIsOrderByStartDesc(booker));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByBookerIsOrderByStartDesc(booker, PAGE));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByBookerIsAndEndBeforeOrderByStartDesc(booker, now()));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByBookerIsAndEndBeforeOrderByStartDesc(
+                booker, now(), PAGE));
+        assertUsesIndex("idx_bookings_booker_start",
+                () -> bookingRepository.findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(booker, now()));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(
+                booker, now(), PAGE));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(
+                booker, now(), now()));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(
+                booker, now(), now(), PAGE));
+        assertUsesIndex("idx_bookings_booker_status_start",
+                () -> bookingRepository.findBookingsByBookerIsAndStatusIsOrderByStartDesc(booker, WAITING));
+        assertUsesIndex("idx_bookings_booker_status_start",
+                () -> bookingRepository.findBookingsByBookerIsAndStatusIsOrderByStartDesc(booker, WAITING, PAGE));
+    }
+
+    @Test
+    void ownerQueriesUseIndexes() {
+        assertUsesIndexes(() -> bookingRepository.findBookingsByItemOwnerIsOrderByStartDesc(owner));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByItemOwnerIsOrderByStartDesc(owner, PAGE));
+        assertUsesIndex("idx_bookings_item_end",
+                () -> bookingRepository.findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(owner, now()));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(
+                owner, now(), PAGE));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByItemOwnerAndStartAfterOrderByStartDesc(owner, now()));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByItemOwnerAndStartAfterOrderByStartDesc(
+                owner, now(), PAGE));
+        assertUsesIndex("idx_bookings_item_start",
+                () -> bookingRepository.findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(
+                        owner, now(), now()));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(
+                owner, now(), now(), PAGE));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(owner, WAITING));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(
+                owner, WAITING, PAGE));
+    }
+
+    @Test
+    void itemBookingQueriesUseIndexes() {
+        var itemIds = List.of(item.getId());
+        assertUsesIndexes(() -> bookingRepository.findBookingsByItem_IdAndItem_Owner_IdIsOrderByStart(
+                item.getId(), owner.getId()));
+        assertUsesIndex("idx_bookings_item_start",
+                () -> bookingRepository.existsByItem_IdAndStatusAndStartBeforeAndEndAfter(
+                        item.getId(), APPROVED, now().plusDays(1), now()));
+        assertUsesIndex("idx_bookings_item_end", () -> bookingRepository.findLastBookingsByItemIds(itemIds, now()));
+        assertUsesIndexes(() -> bookingRepository.findNextBookingsByItemIds(itemIds, now()));
+        assertUsesIndexes(() -> bookingRepository.findNextChangeByItemIds(itemIds, now()));
+        assertUsesIndex("idx_item_booking_summary_valid_until", () -> summaryRepository.findExpiredItemIds(now()));
+    }
+
+    @Test
+    void itemQueriesUseIndexes() {
+        assertUsesIndexes(() -> itemRepository.findAllByOwner_IdIs(owner.getId()));
+        assertUsesIndexes(() -> itemRepository.findAllByOwner_IdIs(owner.getId(), PageRequest.of(0, 10)));
+        assertUsesIndexes(() -> commentRepository.findCommentByItem_IdIsOrderByCreated(item.getId()));
+        assertUsesIndexes(() -> commentRepository.findCommentByItem_IdInOrderByCreated(List.of(item.getId())));
+    }
+
+    private void assertUsesIndex(String index, Runnable query) {
+        assertThat(explain(query), containsString("PUBLIC." + index.toUpperCase()));
+    }
+
+    private void assertUsesIndexes(Runnable query) {
+        explain(query);
+    }
+
+    // план каждого выполненного SELECT; полного сканирования таблицы в нем быть не должно
+    private String explain(Runnable query) {
+        SqlRecorder.STATEMENTS.clear();
+        query.run();
+        var statements = new ArrayList<>(SqlRecorder.STATEMENTS);
+        var plans = new StringBuilder();
+        entityManager.getEntityManager().unwrap(Session.class).doWork(connection -> {
+            for (String sql : statements) {
+                try (var statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                    var parameters = statement.getParameterMetaData().getParameterCount();
+                    for (int i = 1; i <= parameters; i++)
+                        statement.setObject(i, null);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        resultSet.next();
+                        var plan = resultSet.getString(1);
+                        assertThat(sql, plan, not(containsString(TABLE_SCAN)));
+                        plans.append(plan).append('\n');
+                    }
+                }
+            }
+        });
+        entityManager.clear();
+        return plans.toString();
+    }
+}
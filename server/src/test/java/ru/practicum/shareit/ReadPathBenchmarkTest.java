@@ -0,0 +1,160 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingJdbcRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemLocks;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemJdbcRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.LikeItemSearch;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.OptimisticRetry;
+import ru.practicum.shareit.utils.ReadPath;
+import ru.practicum.shareit.utils.ReadPaths;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Function;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+import static ru.practicum.shareit.utils.ReadPath.JDBC;
+import static ru.practicum.shareit.utils.ReadPath.JPA;
+
+
+// Сравнивает время и объём выделенной памяти на вызов для чтения через JPA и через JDBC.
+// Запуск: SHAREIT_BENCHMARK=true mvn test -Dtest=ReadPathBenchmarkTest
+@Slf4j
+@Transactional
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "SHAREIT_BENCHMARK", matches = "true")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ReadPathBenchmarkTest {
+    private static final int ITEMS = 100;
+    private static final int BOOKINGS_PER_ITEM = 10;
+    private static final int WARM_UP = 200;
+    private static final int ITERATIONS = 500;
+    private final EntityManager entityManager;
+    private final UserService userService;
+    private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingJdbcRepository bookingJdbcRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemLocks itemLocks;
+    private final ItemRepository itemRepository;
+    private final ItemJdbcRepository itemJdbcRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final OptimisticRetry optimisticRetry;
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void seed() {
+        owner = User.builder().name("Lora").email("lora@mail.com").build();
+        booker = User.builder().name("Mike").email("mike@mail.com").build();
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        for (int i = 0; i < ITEMS; i++) {
+            var item = Item.builder()
+                    .name("Pen " + i)
+                    .description("Blue pen number " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build();
+            entityManager.persist(item);
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++)
+                entityManager.persist(Booking.builder()
+                        .start(now().plusDays(j * 2L - BOOKINGS_PER_ITEM))
+                        .end(now().plusDays(j * 2L - BOOKINGS_PER_ITEM + 1))
+                        .item(item)
+                        .booker(booker)
+                        .status(APPROVED)
+                        .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void bookerBookingsBenchmark() {
+        compare("GET /bookings", path -> bookingService(path).getAllBookings(booker.getId(), "ALL", 0, 100));
+    }
+
+    @Test
+    void ownerBookingsBenchmark() {
+        compare("GET /bookings/owner", path -> bookingService(path).getBookingsByOwnerId(owner.getId(), null, 0, 100));
+    }
+
+    @Test
+    void ownerItemsBenchmark() {
+        compare("GET /items", path -> itemService(path).getAllItems(owner.getId(), 0, 50));
+    }
+
+    @Test
+    void searchBenchmark() {
+        compare("GET /items/search", path -> path == JPA
+                ? new LikeItemSearch(itemRepository).search("blue", 0, 50)
+                : itemJdbcRepository.search("blue", PageRequest.of(0, 50)));
+    }
+
+    private BookingServiceImpl bookingService(ReadPath path) {
+        return new BookingServiceImpl(bookingRepository, summaryRepository, userService, bookingJdbcRepository,
+                new ReadPaths(path, path, path), bookingIntervalIndex, itemLocks,
+                itemRepository);
+    }
+
+    private ItemServiceImpl itemService(ReadPath path) {
+        return new ItemServiceImpl(commentRepository, itemRepository, itemRequestRepository, bookingService(path),
+                userService, new LikeItemSearch(itemRepository), itemJdbcRepository, new ReadPaths(path, path, path),
+                optimisticRetry);
+    }
+
+    private void compare(String endpoint, Function<ReadPath, ?> call) {
+        var jpa = measure(() -> call.apply(JPA));
+        var jdbc = measure(() -> call.apply(JDBC));
+        log.info("{} JPA: {} us, {} B/call | JDBC: {} us, {} B/call", endpoint,
+                String.format("%.1f", jpa[0] / 1000.0), jpa[1], String.format("%.1f", jdbc[0] / 1000.0), jdbc[1]);
+        assertThat(endpoint, jdbc[1], lessThan(jpa[1]));
+    }
+
+    // Возвращает среднее время вызова в наносекундах и среднее число выделенных потоком байт
+    private long[] measure(Runnable call) {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var threadId = Thread.currentThread().threadId();
+        for (int i = 0; i < WARM_UP; i++) {
+            call.run();
+            entityManager.clear();
+        }
+        long nanos = 0;
+        long bytes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            var allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            var start = System.nanoTime();
+            call.run();
+            nanos += System.nanoTime() - start;
+            bytes += threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            entityManager.clear();
+        }
+        return new long[]{nanos / ITERATIONS, bytes / ITERATIONS};
+    }
+}
@@ -0,0 +1,182 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.enums.BookingTimeState;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingJdbcRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemLocks;
+import ru.practicum.shareit.error.ValidationException;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemJdbcRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.JdbcItemSearch;
+import ru.practicum.shareit.item.search.LikeItemSearch;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.OptimisticRetry;
+import ru.practicum.shareit.utils.ReadPaths;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ru.practicum.shareit.booking.enums.BookingState.*;
+import static ru.practicum.shareit.utils.ReadPath.JPA;
+
+
+// Сервисы контекста читают через JDBC, а эталонные собраны вручную поверх тех же репозиториев с чтением через JPA
+@Transactional
+@SpringBootTest(properties = {
+        "shareit.read-path.bookings=jdbc",
+        "shareit.read-path.owner-bookings=jdbc",
+        "shareit.read-path.items=jdbc",
+        "shareit.item.search.mode=jdbc"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ReadPathTest {
+    private final EntityManager entityManager;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingJdbcRepository bookingJdbcRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemLocks itemLocks;
+    private final ItemRepository itemRepository;
+    private final ItemJdbcRepository itemJdbcRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final JdbcItemSearch jdbcItemSearch;
+    private final OptimisticRetry optimisticRetry;
+    private BookingService jpaBookingService;
+    private ItemService jpaItemService;
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void initialize() {
+        var jpaReadPaths = new ReadPaths(JPA, JPA, JPA);
+        jpaBookingService = new BookingServiceImpl(
+                bookingRepository, summaryRepository, userService, bookingJdbcRepository, jpaReadPaths,
+                bookingIntervalIndex, itemLocks, itemRepository);
+        jpaItemService = new ItemServiceImpl(commentRepository, itemRepository, itemRequestRepository,
+                jpaBookingService, userService, new LikeItemSearch(itemRepository), itemJdbcRepository, jpaReadPaths,
+                optimisticRetry);
+
+        owner = persist(User.builder().name("Lora").email("lora@mail.com").build());
+        booker = persist(User.builder().name("Mike").email("mike@mail.com").build());
+        for (int i = 0; i < 8; i++) {
+            var item = persist(Item.builder()
+                    .name("Pen " + i)
+                    .description(i % 2 == 0 ? "Blue pen" : "Red pencil")
+                    .available(i != 3)
+                    .owner(i < 6 ? owner : booker)
+                    .build());
+            persist(Booking.builder()
+                    .start(now().plusDays(i * 2L - 7))
+                    .end(now().plusDays(i * 2L - 6))
+                    .item(item)
+                    .booker(i < 6 ? booker : owner)
+                    .status(i % 3 == 0 ? APPROVED : WAITING)
+                    .build());
+            persist(Booking.builder()
+                    .start(now().minusHours(i + 1))
+                    .end(now().plusHours(i + 1))
+                    .item(item)
+                    .booker(i < 6 ? booker : owner)
+                    .status(i % 2 == 0 || i % 3 == 0 ? REJECTED : APPROVED)
+                    .build());
+            if (i % 2 == 0)
+                persist(Comment.builder()
+                        .text("Good " + i)
+                        .item(item)
+                        .author(booker)
+                        .created(now().minusMinutes(i))
+                        .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    @Test
+    void bookerBookingsTest() {
+        var states = Stream.concat(
+                        Stream.of((String) null),
+                        Stream.concat(Arrays.stream(BookingTimeState.values()), Arrays.stream(values()))
+                                .map(Enum::name))
+                .toList();
+        for (var state : states) {
+            var expected = jpaBookingService.getAllBookings(booker.getId(), state, null, null);
+            assertThat(state, bookingService.getAllBookings(booker.getId(), state, null, null), equalTo(expected));
+            assertThat(state, bookingService.getAllBookings(booker.getId(), state, 1, 2),
+                    equalTo(jpaBookingService.getAllBookings(booker.getId(), state, 1, 2)));
+        }
+        assertThat(bookingService.getAllBookings(booker.getId(), null, null, null), hasSize(12));
+    }
+
+    @Test
+    void ownerBookingsTest() {
+        for (var state : BookingTimeState.values()) {
+            var expected = jpaBookingService.getBookingsByOwnerId(owner.getId(), state, null, null);
+            assertThat(state.name(), bookingService.getBookingsByOwnerId(owner.getId(), state, null, null),
+                    equalTo(expected));
+            assertThat(state.name(), bookingService.getBookingsByOwnerId(owner.getId(), state, 2, 2),
+                    equalTo(jpaBookingService.getBookingsByOwnerId(owner.getId(), state, 2, 2)));
+        }
+        assertThat(bookingService.getBookingsByOwnerId(owner.getId(), null, null, null), hasSize(12));
+    }
+
+    @Test
+    void unknownStateTest() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.getAllBookings(booker.getId(), "UNSUPPORTED_STATUS", null, null));
+    }
+
+    @Test
+    void ownerItemsTest() {
+        var items = itemService.getAllItems(owner.getId(), null, null);
+
+        assertThat(items, equalTo(jpaItemService.getAllItems(owner.getId(), null, null)));
+        assertThat(items, hasSize(6));
+        assertThat(items.get(0).getComments(), hasSize(1));
+        assertThat(items.get(0).getComments().get(0).getAuthorName(), equalTo("Mike"));
+        assertThat(itemService.getAllItems(owner.getId(), 2, 2),
+                equalTo(jpaItemService.getAllItems(owner.getId(), 2, 2)));
+    }
+
+    @Test
+    void searchTest() {
+        assertThat(itemService.search("PEN", owner.getId(), null, null),
+                equalTo(new LikeItemSearch(itemRepository).search("PEN", null, null)));
+        assertThat(itemService.search("pencil", owner.getId(), 1, 2),
+                equalTo(new LikeItemSearch(itemRepository).search("pencil", 1, 2)));
+        assertThat(itemService.search("pen", owner.getId(), null, null), hasSize(7));
+        assertThat(jdbcItemSearch.searchAfter("blue", 0L, Limit.of(2)),
+                everyItem(hasProperty("description", equalTo("Blue pen"))));
+    }
+}
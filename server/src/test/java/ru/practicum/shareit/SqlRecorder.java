@@ -0,0 +1,22 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запоминает SELECT-запросы, которые Hibernate отправляет в БД, чтобы тесты планов
+ * выполняли EXPLAIN ровно для того SQL, что уходит из репозиториев и сервисов.
+ * Подключается свойством hibernate.session_factory.statement_inspector.
+ */
+public class SqlRecorder implements StatementInspector {
+    public static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        if (sql.trim().toLowerCase().startsWith("select"))
+            STATEMENTS.add(sql);
+        return sql;
+    }
+}
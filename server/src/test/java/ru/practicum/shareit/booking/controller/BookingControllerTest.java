@@ -10,11 +10,15 @@ import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
 import ru.practicum.shareit.booking.dto.BookingSavingDto;
 import ru.practicum.shareit.booking.enums.BookingTimeState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.error.ConflictException;
 import ru.practicum.shareit.error.NotFoundException;
+import ru.practicum.shareit.error.PreconditionFailedException;
 import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utils.CursorPage;
+import ru.practicum.shareit.utils.StreamingResponses;
 
 import java.time.LocalDateTime;
 
@@ -29,6 +33,7 @@ import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.booking.enums.BookingState.WAITING;
@@ -45,6 +50,8 @@ class BookingControllerTest {
     BookingService bookingService;
     @MockBean
     ItemService itemService;
+    @MockBean
+    StreamingResponses streamingResponses;
     @Autowired
     ObjectMapper mapper;
     @Autowired
@@ -57,6 +64,7 @@ class BookingControllerTest {
             .item(itemDto)
             .booker(userDto)
             .status(WAITING.name())
+            .version(2L)
             .build();
 
     private final BookingSavingDto bookingSavingDto = BookingSavingDto.builder()
@@ -88,6 +96,35 @@ class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAllBookingsAfterCursorTest() throws Exception {
+        when(bookingService.getAllBookingsAfter(anyLong(), anyString(), eq("cursor"), anyInt()))
+                .thenReturn(new CursorPage<>(of(bookingAllFieldsDto), "next"));
+        mvc.perform(get("/bookings")
+                        .header(headerSharerUserId, 1)
+                        .param("state", "ALL")
+                        .param("size", "1")
+                        .param("cursor", "cursor"))
+                .andExpect(jsonPath("$[0].id", is(bookingAllFieldsDto.getId()), Long.class))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getBookingsByOwnerIdAfterCursorTest() throws Exception {
+        when(bookingService.getBookingsByOwnerIdAfter(anyLong(), eq(BookingTimeState.ALL), eq("cursor"), anyInt()))
+                .thenReturn(new CursorPage<>(of(bookingAllFieldsDto), null));
+        mvc.perform(get("/bookings/owner")
+                        .header(headerSharerUserId, 1)
+                        .param("state", "ALL")
+                        .param("size", "1")
+                        .param("cursor", "cursor"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void getBookingsByOwnerIdTest() throws Exception {
         // Убедитесь, что используется конкретное значение BookingTimeState
@@ -133,7 +170,7 @@ class BookingControllerTest {
 
     @Test
     void approveTest() throws Exception {
-        when(bookingService.approve(anyLong(), anyBoolean(), anyLong()))
+        when(bookingService.approve(anyLong(), anyBoolean(), anyLong(), any()))
                 .thenReturn(bookingAllFieldsDto);
         mvc.perform(patch("/bookings/{bookingId}", 1)
                         .content(mapper.writeValueAsString(bookingAllFieldsDto))
@@ -152,12 +189,26 @@ class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getBookingsByIdsTest() throws Exception {
+        when(bookingService.getBookingsByIds(of(1L, 2L), 1L))
+                .thenReturn(of(bookingAllFieldsDto));
+        mvc.perform(get("/bookings")
+                        .param("ids", "1", "2")
+                        .header(headerSharerUserId, 1))
+                .andExpect(jsonPath("$[0].id", is(bookingAllFieldsDto.getId()), Long.class))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void getBookingByIdTest() throws Exception {
         when(bookingService.getBookingById(anyLong(), anyLong()))
                 .thenReturn(bookingAllFieldsDto);
         mvc.perform(get("/bookings/{bookingId}", 1)
                         .header(headerSharerUserId, 1))
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(jsonPath("$.version").doesNotExist())
                 .andExpect(jsonPath("$.start", is(bookingAllFieldsDto.getStart().toString())))
                 .andExpect(jsonPath("$.end", is(bookingAllFieldsDto.getEnd().toString())))
                 .andExpect(jsonPath("$.id", is(bookingAllFieldsDto.getId()), Long.class))
@@ -225,7 +276,7 @@ class BookingControllerTest {
 
     @Test
     void approveValidationExceptionTest() throws Exception {
-        when(bookingService.approve(anyLong(), anyBoolean(), anyLong()))
+        when(bookingService.approve(anyLong(), anyBoolean(), anyLong(), any()))
                 .thenThrow(ValidationException.class);
         mvc.perform(patch("/bookings/{bookingId}", 1)
                         .content(mapper.writeValueAsString(bookingAllFieldsDto))
@@ -238,6 +289,31 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void approveConflictExceptionTest() throws Exception {
+        when(bookingService.approve(anyLong(), anyBoolean(), anyLong(), any()))
+                .thenThrow(ConflictException.class);
+        mvc.perform(patch("/bookings/{bookingId}", 1)
+                        .param("approved", "true")
+                        .header(headerSharerUserId, 1)
+                        .accept(APPLICATION_JSON)
+                )
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void approvePreconditionFailedExceptionTest() throws Exception {
+        when(bookingService.approve(1L, true, 1L, 2L))
+                .thenThrow(PreconditionFailedException.class);
+        mvc.perform(patch("/bookings/{bookingId}", 1)
+                        .param("approved", "true")
+                        .header(headerSharerUserId, 1)
+                        .header("If-Match", "\"2\"")
+                        .accept(APPLICATION_JSON)
+                )
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void getBookingByIdNotFoundExceptionTest() throws Exception {
         when(bookingService.getBookingById(anyLong(), anyLong()))
@@ -250,7 +326,7 @@ class BookingControllerTest {
 
     @Test
     void approveNotFoundExceptionTest() throws Exception {
-        when(bookingService.approve(anyLong(), anyBoolean(), anyLong()))
+        when(bookingService.approve(anyLong(), anyBoolean(), anyLong(), any()))
                 .thenThrow(NotFoundException.class);
         mvc.perform(patch("/bookings/{bookingId}", 1)
                         .content(mapper.writeValueAsString(bookingAllFieldsDto))
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static java.time.LocalDateTime.now;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static ru.practicum.shareit.booking.enums.BookingState.WAITING;
+
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingRepositoryTest {
+    private static final int BOOKINGS = 10;
+    private static final PageRequest PAGE = PageRequest.of(0, 20, Sort.by("start").descending());
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private BookingRepository bookingRepository;
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = entityManager.persist(User.builder().name("Lora").email("lora@mail.com").build());
+        booker = entityManager.persist(User.builder().name("Mike").email("mike@mail.com").build());
+        for (int i = 0; i < BOOKINGS; i++) {
+            var requester = entityManager.persist(User.builder()
+                    .name("requester" + i)
+                    .email("requester" + i + "@mail.com")
+                    .build());
+            var request = entityManager.persist(ItemRequest.builder()
+                    .description("pen" + i)
+                    .requester(requester)
+                    .created(now())
+                    .build());
+            item = entityManager.persist(Item.builder()
+                    .name("pen" + i)
+                    .description("blue pen")
+                    .available(true)
+                    .owner(owner)
+                    .request(request)
+                    .build());
+            entityManager.persist(Booking.builder()
+                    .start(now().minusDays(i))
+                    .end(now().plusDays(i + 1))
+                    .item(item)
+                    .booker(booker)
+                    .status(WAITING)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+
+    @Test
+    void bookerListsUseSingleStatement() {
+        assertSingleStatement(() -> bookingRepository.findBookingsByBookerIsOrderByStartDesc(booker));
+        assertSingleStatement(() -> bookingRepository.findBookingsByBookerIsOrderByStartDesc(booker, PAGE)
+                .getContent());
+        assertSingleStatement(() -> bookingRepository.findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(
+                booker, now(), now()));
+        assertSingleStatement(() -> bookingRepository.findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(
+                booker, now(), now(), PAGE).getContent());
+        assertSingleStatement(() -> bookingRepository.findBookingsByBookerIsAndStatusIsOrderByStartDesc(
+                booker, WAITING));
+        assertSingleStatement(() -> bookingRepository.findBookingsByBookerIsAndStatusIsOrderByStartDesc(
+                booker, WAITING, PAGE).getContent());
+        assertSingleStatement(() -> bookingRepository.findAll(BookingSpecifications.bookerIs(booker.getId())));
+    }
+
+    @Test
+    void ownerListsUseSingleStatement() {
+        assertSingleStatement(() -> bookingRepository.findBookingsByItemOwnerIsOrderByStartDesc(owner));
+        assertSingleStatement(() -> bookingRepository.findBookingsByItemOwnerIsOrderByStartDesc(owner, PAGE)
+                .getContent());
+        assertSingleStatement(() -> bookingRepository.findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(
+                owner, now(), now()));
+        assertSingleStatement(() -> bookingRepository.findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(
+                owner, WAITING));
+        assertSingleStatement(() -> bookingRepository.findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(
+                owner, WAITING, PAGE).getContent());
+        assertSingleStatement(() -> bookingRepository.findAll(BookingSpecifications.itemOwnerIs(owner.getId())));
+        assertSingleStatement(() -> bookingRepository.findBy(BookingSpecifications.itemOwnerIs(owner.getId()),
+                query -> query.project("item", "booker").sortBy(Sort.by("start")).limit(BOOKINGS).all()));
+    }
+
+    @Test
+    void findAllByIdUsesSingleStatement() {
+        var ids = bookingRepository.findAll().stream().map(Booking::getId).collect(toList());
+        entityManager.clear();
+        assertSingleStatement(() -> bookingRepository.findAllById(ids));
+    }
+
+    @Test
+    void summaryQueriesDoNotLoadItemsAndBookers() {
+        statistics.clear();
+        var bookings = bookingRepository.findLastBookingsByItemIds(List.of(item.getId()), now().plusYears(1));
+        assertThat(bookings, hasSize(1));
+        assertThat(Hibernate.isInitialized(bookings.get(0).getItem()), is(false));
+        assertThat(Hibernate.isInitialized(bookings.get(0).getBooker()), is(false));
+        assertThat(bookings.get(0).getBooker().getId(), equalTo(booker.getId()));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+    }
+
+    private void assertSingleStatement(Supplier<List<Booking>> query) {
+        statistics.clear();
+        List<BookingAllFieldsDto> bookings = query.get().stream()
+                .map(BookingMapper::mapToBookingAllFieldsDto)
+                .collect(toList());
+        assertThat(bookings, hasSize(BOOKINGS));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+
+
+/**
+ * Проверка advisory-блокировок на настоящем PostgreSQL:
+ * SHAREIT_TEST_POSTGRES_URL=jdbc:postgresql://localhost:6541/shareit mvn test
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.datasource.url=${SHAREIT_TEST_POSTGRES_URL}",
+        "spring.datasource.username=${SHAREIT_TEST_POSTGRES_USER:shareit}",
+        "spring.datasource.password=${SHAREIT_TEST_POSTGRES_PASSWORD:shareit}",
+        "spring.sql.init.schema-locations=classpath:schema.sql,classpath:schema-postgresql.sql",
+        "shareit.booking.lock.mode=advisory"})
+@EnabledIfEnvironmentVariable(named = "SHAREIT_TEST_POSTGRES_URL", matches = ".+")
+class AdvisoryItemLocksTest {
+    @Autowired
+    private ItemLocks itemLocks;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void lockHeldUntilTransactionEndsTest() throws Exception {
+        var locked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var holder = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            itemLocks.lock(42L);
+            locked.countDown();
+            await(release);
+        }));
+        locked.await();
+
+        assertThat(itemLocks, instanceOf(AdvisoryItemLocks.class));
+        assertThat(itemLocks.isClusterWide(), equalTo(true));
+        assertThat(tryLock(42L), equalTo(false));
+        assertThat(tryLock(43L), equalTo(true));
+
+        release.countDown();
+        holder.get();
+        assertThat(tryLock(42L), equalTo(true));
+    }
+
+    // отдельная транзакция и соединение, как у другого экземпляра сервера
+    private Boolean tryLock(long itemId) {
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, itemId));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingSavingDto;
+import ru.practicum.shareit.error.ConflictException;
+import ru.practicum.shareit.error.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.time.temporal.ChronoUnit.HOURS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+
+
+// Без @Transactional: каждое бронирование и одобрение коммитится, потоки видят изменения друг друга.
+// Двухчасовые брони начинаются с шагом в час, поэтому соседние слоты пересекаются. Полос блокировок меньше,
+// чем обычно, чтобы вещи делили их между собой. Свой контекст и без кэша второго уровня (менеджер ehcache общий
+// для всех контекстов JVM) — чтобы закоммиченные данные не видели другие тесты.
+// Пересечения одобренных броней отсекает и ограничение в БД, поэтому саму блокировку проверяет счетчик потоков
+// внутри критической секции save: от проверки пересечения до конца транзакции там не больше одного потока на вещь.
+@Slf4j
+@SpringBootTest(properties = {
+        "shareit.booking.lock.stripes=2",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingConcurrencyStressTest {
+    private static final int ITEMS = 4;
+    private static final int THREADS = 64;
+    private static final int OPERATIONS_PER_THREAD = 10;
+    private static final int SLOTS = 240;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, AtomicInteger> insideByItem = new ConcurrentHashMap<>();
+    private final AtomicInteger maxInside = new AtomicInteger();
+    @SpyBean
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @BeforeEach
+    void countThreadsInCriticalSection() {
+        doAnswer(invocation -> {
+            var inside = insideByItem.computeIfAbsent(invocation.getArgument(0), itemId -> new AtomicInteger());
+            maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+            // выход из секции отмечается раньше, чем снимается блокировка вещи
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    inside.decrementAndGet();
+                }
+            });
+            Thread.sleep(1);
+            return invocation.callRealMethod();
+        }).when(bookingIntervalIndex).overlaps(anyLong(), any(), any());
+    }
+
+    @Test
+    void noOverlappingApprovalsTest() throws Exception {
+        var owner = userService.save(new UserDto(null, "Lora", "lora.stress@mail.com"));
+        var booker = userService.save(new UserDto(null, "Mike", "mike.stress@mail.com"));
+        List<ItemAllFieldsDto> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            var item = itemService.save(new ItemDto(null, "Drill " + i, "Stress drill", true, null, null), null,
+                    owner.getId());
+            items.add(itemService.get(item.getId(), owner.getId()));
+        }
+        var base = LocalDateTime.now().plusDays(1).truncatedTo(HOURS);
+        var approved = new AtomicInteger();
+        var conflicts = new AtomicInteger();
+
+        var started = System.nanoTime();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int thread = 0; thread < THREADS; thread++) {
+                executor.submit(() -> {
+                    var random = ThreadLocalRandom.current();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        var item = items.get(random.nextInt(ITEMS));
+                        var start = base.plusHours(random.nextInt(SLOTS));
+                        try {
+                            var booking = bookingService.save(BookingSavingDto.builder()
+                                    .start(start)
+                                    .end(start.plusHours(2))
+                                    .itemId(item.getId())
+                                    .build(), item, booker.getId());
+                            bookingService.approve(booking.getId(), true, owner.getId());
+                            approved.incrementAndGet();
+                        } catch (NotFoundException | ConflictException e) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        var seconds = (System.nanoTime() - started) / 1e9;
+        log.info("Booking stress: {} operations in {} s ({} op/s), approved: {}, conflicts: {}, max in section: {}",
+                THREADS * OPERATIONS_PER_THREAD, String.format("%.2f", seconds),
+                Math.round(THREADS * OPERATIONS_PER_THREAD / seconds), approved.get(), conflicts.get(),
+                maxInside.get());
+
+        var overlapping = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings booking " +
+                "JOIN bookings other ON other.item_id = booking.item_id AND other.id > booking.id " +
+                "WHERE booking.status = 'APPROVED' AND other.status = 'APPROVED' " +
+                "AND booking.start_date < other.end_date AND booking.end_date > other.start_date", Integer.class);
+        assertThat(overlapping, equalTo(0));
+        assertThat(maxInside.get(), equalTo(1));
+        assertThat(approved.get(), greaterThan(0));
+        assertThat(approved.get() + conflicts.get(), equalTo(THREADS * OPERATIONS_PER_THREAD));
+    }
+}
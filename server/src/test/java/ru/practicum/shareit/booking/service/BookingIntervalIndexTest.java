@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static java.time.LocalDateTime.now;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    private BookingIntervalIndex index;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void initialize() {
+        index = new BookingIntervalIndex(bookingRepository);
+        start = now().plusDays(1);
+    }
+
+    @Test
+    void overlapsBeforeRebuildQueriesRepositoryTest() {
+        when(bookingRepository.existsByItem_IdAndStatusAndStartBeforeAndEndAfter(
+                1L, APPROVED, start.plusHours(2), start))
+                .thenReturn(true);
+
+        assertTrue(index.overlaps(1L, start, start.plusHours(2)));
+    }
+
+    @Test
+    void overlapsAfterRebuildTest() {
+        when(bookingRepository.findIntervals(any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 1L, start, start.plusHours(2)}));
+        index.rebuild();
+
+        assertTrue(index.overlaps(1L, start.plusHours(1), start.plusHours(3)));
+        assertFalse(index.overlaps(1L, start.plusHours(2), start.plusHours(3)));
+        assertFalse(index.overlaps(2L, start, start.plusHours(2)));
+        verify(bookingRepository, never()).existsByItem_IdAndStatusAndStartBeforeAndEndAfter(
+                anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void addTest() {
+        when(bookingRepository.findIntervals(any(), any()))
+                .thenReturn(List.of());
+        index.rebuild();
+        index.add(1L, 1L, start, start.plusHours(2));
+
+        assertTrue(index.overlaps(1L, start.minusHours(1), start.plusHours(1)));
+    }
+}
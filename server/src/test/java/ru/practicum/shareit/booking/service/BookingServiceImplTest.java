@@ -10,6 +10,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
 import ru.practicum.shareit.booking.dto.BookingSavingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.error.ConflictException;
+import ru.practicum.shareit.error.NotFoundException;
+import ru.practicum.shareit.error.PreconditionFailedException;
+import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
@@ -20,9 +25,14 @@ import static java.time.LocalDateTime.now;
 import static java.util.List.of;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
 import static ru.practicum.shareit.booking.enums.BookingState.WAITING;
+import static ru.practicum.shareit.booking.enums.BookingTimeState.FUTURE;
 
 
 @Transactional
@@ -105,6 +115,23 @@ class BookingServiceImplTest {
                 equalTo(bookingAllFieldsDto.getItem().getId()));
     }
 
+    @Test
+    void getBookingsByIdsTest() {
+        var stranger = userService.save(new UserDto(null, "Kate", "kate@mail.com"));
+        var ids = of(bookingAllFieldsDto.getId(), bookingAllFieldsDto.getId() + 100, bookingAllFieldsDto.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        var byBooker = bookingService.getBookingsByIds(ids, bookingAllFieldsDto.getBooker().getId());
+        var byOwner = bookingService.getBookingsByIds(ids, owner.getId());
+        var byStranger = bookingService.getBookingsByIds(ids, stranger.getId());
+
+        assertThat(byBooker, hasSize(1));
+        assertThat(byBooker.get(0).getId(), equalTo(bookingAllFieldsDto.getId()));
+        assertThat(byOwner, hasSize(1));
+        assertThat(byStranger, hasSize(0));
+    }
+
     @Test
     void getAllBookingsTest() {
         var approved = bookingService.getAllBookings(
@@ -211,4 +238,174 @@ class BookingServiceImplTest {
         assertThat(approved.getId(),
                 equalTo(booking.getId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void approveTest() {
+        var approved = bookingService.approve(bookingAllFieldsDto.getId(), true, owner.getId(), 0L);
+        assertThat(approved.getStatus(), equalTo(APPROVED.name()));
+        assertThat(approved.getVersion(), equalTo(1L));
+        assertThat(approved.getItem().getId(), equalTo(itemDto.getId()));
+        assertThat(approved.getBooker().getId(), equalTo(bookingAllFieldsDto.getBooker().getId()));
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.approve(bookingAllFieldsDto.getId(), false, owner.getId()));
+    }
+
+    @Test
+    void approveStaleVersionTest() {
+        assertThrows(PreconditionFailedException.class,
+                () -> bookingService.approve(bookingAllFieldsDto.getId(), true, owner.getId(), 3L));
+        assertThrows(NotFoundException.class,
+                () -> bookingService.approve(bookingAllFieldsDto.getId() + 100, true, owner.getId()));
+    }
+
+    @Test
+    void approveOverlappingBookingTest() {
+        var booker = userService.save(
+                new UserDto(
+                        null,
+                        "Kate",
+                        "kate@mail.com")
+        );
+        var overlapping = bookingService.save(
+                BookingSavingDto.builder()
+                        .start(now().plusMinutes(30))
+                        .end(now().plusHours(3))
+                        .build(),
+                new ItemAllFieldsDto(
+                        itemDto.getId(),
+                        itemDto.getName(),
+                        itemDto.getDescription(),
+                        true,
+                        owner.getId(),
+                        null,
+                        null,
+                        null,
+                        of()),
+                booker.getId()
+        );
+        entityManager.flush();
+        entityManager.clear();
+        bookingService.approve(bookingAllFieldsDto.getId(), true, owner.getId());
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.approve(overlapping.getId(), true, owner.getId()));
+    }
+
+    @Test
+    void saveRefreshesBookingSummaryTest() {
+        var summary = entityManager.find(ItemBookingSummary.class, itemDto.getId());
+        assertThat(summary, notNullValue());
+        assertThat(summary.getLastBookingId(), nullValue());
+        assertThat(summary.getNextBookingId(), nullValue());
+        assertThat(summary.getValidUntil(), greaterThan(now()));
+    }
+
+    @Test
+    void getBookingSummariesTest() {
+        var booker = userService.save(
+                new UserDto(
+                        null,
+                        "Kate",
+                        "kate@mail.com")
+        );
+        var next = bookingService.save(
+                BookingSavingDto.builder()
+                        .start(now().plusDays(1))
+                        .end(now().plusDays(2))
+                        .build(),
+                new ItemAllFieldsDto(
+                        itemDto.getId(),
+                        itemDto.getName(),
+                        itemDto.getDescription(),
+                        true,
+                        owner.getId(),
+                        null,
+                        null,
+                        null,
+                        of()),
+                booker.getId()
+        );
+        var summaries = bookingService.getBookingSummaries(of(itemDto.getId()));
+        assertThat(summaries, hasSize(1));
+        assertThat(summaries.get(0).getLastBooking(), nullValue());
+        assertThat(summaries.get(0).getNextBooking().getId(), equalTo(next.getId()));
+        assertThat(summaries.get(0).getNextBooking().getBookerId(), equalTo(booker.getId()));
+    }
+
+    @Test
+    void rolloverBookingSummariesTest() {
+        var summary = entityManager.find(ItemBookingSummary.class, itemDto.getId());
+        summary.setValidUntil(now().minusMinutes(1));
+        summary.setNextBookingId(bookingAllFieldsDto.getId());
+        entityManager.flush();
+
+        bookingService.rolloverBookingSummaries();
+        entityManager.flush();
+        entityManager.clear();
+
+        var refreshed = entityManager.find(ItemBookingSummary.class, itemDto.getId());
+        assertThat(refreshed.getNextBookingId(), nullValue());
+        assertThat(refreshed.getValidUntil(), greaterThan(now()));
+    }
+
+    @Test
+    void rolloverCreatesSummaryForItemWithoutBookingsTest() {
+        var unbooked = itemService.save(new ItemDto(null, "pencil", "red", true, owner.getId(), null),
+                null, owner.getId());
+        assertThat(entityManager.find(ItemBookingSummary.class, unbooked.getId()), nullValue());
+
+        bookingService.rolloverBookingSummaries();
+        entityManager.flush();
+        entityManager.clear();
+
+        var summary = entityManager.find(ItemBookingSummary.class, unbooked.getId());
+        assertThat(summary, notNullValue());
+        assertThat(summary.getLastBookingId(), nullValue());
+        assertThat(summary.getNextBookingId(), nullValue());
+        assertThat(summary.getValidUntil(), nullValue());
+    }
+
+    @Test
+    void getAllBookingsAfterCursorTest() {
+        var bookerId = bookingAllFieldsDto.getBooker().getId();
+        var start = now().plusDays(1);
+        var item = new ItemAllFieldsDto(
+                itemDto.getId(),
+                itemDto.getName(),
+                itemDto.getDescription(),
+                true,
+                owner.getId(),
+                null,
+                null,
+                null,
+                of());
+        var first = bookingService.save(
+                BookingSavingDto.builder().start(start).end(start.plusHours(1)).build(), item, bookerId);
+        var second = bookingService.save(
+                BookingSavingDto.builder().start(start).end(start.plusHours(2)).build(), item, bookerId);
+
+        var page = bookingService.getAllBookingsAfter(bookerId, null, null, 2);
+        assertThat(page.getContent(), hasSize(2));
+        assertThat(page.getContent().get(0).getId(), equalTo(second.getId()));
+        assertThat(page.getContent().get(1).getId(), equalTo(first.getId()));
+        assertThat(page.getNextCursor(), notNullValue());
+
+        var next = bookingService.getAllBookingsAfter(bookerId, null, page.getNextCursor(), 2);
+        assertThat(next.getContent(), hasSize(1));
+        assertThat(next.getContent().get(0).getId(), equalTo(bookingAllFieldsDto.getId()));
+        assertThat(next.getNextCursor(), nullValue());
+
+        var future = bookingService.getBookingsByOwnerIdAfter(owner.getId(), FUTURE, null, 10);
+        assertThat(future.getContent(), hasSize(2));
+    }
+
+    @Test
+    void getAllBookingsAfterInvalidCursorTest() {
+        var bookerId = bookingAllFieldsDto.getBooker().getId();
+        assertThrows(ValidationException.class,
+                () -> bookingService.getAllBookingsAfter(bookerId, null, "bm90LWEtY3Vyc29y", 2));
+        assertThrows(ValidationException.class,
+                () -> bookingService.getAllBookingsAfter(bookerId, "UNKNOWN", null, 2));
+    }
+}
@@ -5,17 +5,27 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
 import ru.practicum.shareit.booking.dto.BookingSavingDto;
 import ru.practicum.shareit.booking.enums.BookingTimeState;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingJdbcRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.error.ConflictException;
 import ru.practicum.shareit.error.NotFoundException;
+import ru.practicum.shareit.error.PreconditionFailedException;
 import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.ReadPaths;
+
+import java.sql.SQLException;
+import java.util.Optional;
 
 import static java.time.LocalDateTime.now;
 import static java.util.List.of;
@@ -25,18 +35,32 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.data.domain.Page.empty;
 import static ru.practicum.shareit.booking.enums.BookingState.*;
 import static ru.practicum.shareit.booking.enums.BookingTimeState.*;
+import static ru.practicum.shareit.booking.mapper.BookingMapper.mapToBookingAllFieldsDto;
 import static ru.practicum.shareit.item.mapper.ItemMapper.mapToItemAllFieldsDto;
 import static ru.practicum.shareit.user.mapper.UserMapper.mapToUser;
+import static ru.practicum.shareit.utils.ReadPath.JPA;
 
 
 @ExtendWith(MockitoExtension.class)
 class BookingServiceUnitTest {
     @Mock
     private BookingRepository bookingRepository;
+    @Mock
+    private ItemBookingSummaryRepository summaryRepository;
+    @Mock
+    private BookingJdbcRepository bookingJdbcRepository;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private ItemLocks itemLocks;
+    @Mock
+    private ItemRepository itemRepository;
     private BookingSavingDto bookingCreatedDto;
     private BookingService bookingService;
     @Mock
@@ -46,7 +70,9 @@ class BookingServiceUnitTest {
 
     @BeforeEach
     void initialize() {
-        bookingService = new BookingServiceImpl(bookingRepository, userService);
+        bookingService = new BookingServiceImpl(bookingRepository, summaryRepository, userService,
+                bookingJdbcRepository, new ReadPaths(JPA, JPA, JPA), bookingIntervalIndex,
+                itemLocks, itemRepository);
         bookingCreatedDto = BookingSavingDto.builder()
                 .id(1L)
                 .start(now())
@@ -66,17 +92,19 @@ class BookingServiceUnitTest {
                 .id(1L)
                 .start(now())
                 .end(now().plusHours(2))
-                .item(new Item(1L, "pen", "blue pen", true, mapToUser(userDto), null))
+                .item(new Item(1L, "pen", "blue pen", true, mapToUser(userDto), null, 0L))
                 .booker(new User(2L, "Maggie", "maggie@mail.com"))
                 .status(WAITING)
                 .build();
+        lenient().when(itemRepository.getReferenceById(anyLong()))
+                .thenReturn(booking.getItem());
     }
 
     private BookingAllFieldsDto saveBookingDto() {
         when(userService.get(any()))
                 .thenReturn(userDto);
-        when(bookingRepository.findBookingsByItem_IdIsAndStatusIsAndEndIsAfter(anyLong(), any(), any()))
-                .thenReturn(of());
+        when(bookingIntervalIndex.overlaps(anyLong(), any(), any()))
+                .thenReturn(false);
         when(bookingRepository.save(any()))
                 .thenReturn(booking);
         return bookingService.save(
@@ -205,8 +233,8 @@ class BookingServiceUnitTest {
     void saveBookingTakenItemTest() {
         when(userService.get(anyLong()))
                 .thenReturn(userDto);
-        when(bookingRepository.findBookingsByItem_IdIsAndStatusIsAndEndIsAfter(anyLong(), any(), any()))
-                .thenReturn(of(booking));
+        when(bookingIntervalIndex.overlaps(anyLong(), any(), any()))
+                .thenReturn(true);
         var exception = assertThrows(NotFoundException.class,
                 () -> bookingService.save(
                         bookingCreatedDto,
@@ -220,6 +248,29 @@ class BookingServiceUnitTest {
         assertEquals("Эта вещь не может быть забронирована: " + booking.getItem().getName(), exception.getMessage());
     }
 
+    @Test
+    void saveBookingTakenItemClusterWideLockTest() {
+        when(userService.get(anyLong()))
+                .thenReturn(userDto);
+        when(itemLocks.isClusterWide())
+                .thenReturn(true);
+        when(bookingRepository.existsByItem_IdAndStatusAndStartBeforeAndEndAfter(
+                booking.getItem().getId(), APPROVED, bookingCreatedDto.getEnd(), bookingCreatedDto.getStart()))
+                .thenReturn(true);
+        assertThrows(NotFoundException.class,
+                () -> bookingService.save(
+                        bookingCreatedDto,
+                        mapToItemAllFieldsDto(
+                                booking.getItem(),
+                                null,
+                                null,
+                                of()),
+                        2L)
+        );
+        verify(itemLocks).lock(booking.getItem().getId());
+        verify(bookingIntervalIndex, never()).overlaps(anyLong(), any(), any());
+    }
+
     @Test
     void approveBookingNotItemOwnerTest() {
         when(bookingRepository.findById(anyLong()))
@@ -235,24 +286,50 @@ class BookingServiceUnitTest {
 
     @Test
     void approveBookingTest() {
-        var approved = new Booking(
-                booking.getId(),
-                booking.getStart(),
-                booking.getEnd(),
-                booking.getItem(),
-                booking.getBooker(),
-                APPROVED);
-        when(bookingRepository.findById(anyLong()))
-                .thenReturn(ofNullable(booking));
-        when(bookingRepository.save(any()))
-                .thenReturn(approved);
+        booking.setStatus(APPROVED);
+        booking.setVersion(1L);
+        var approved = mapToBookingAllFieldsDto(booking);
+        when(bookingJdbcRepository.updateStatusIfWaiting(booking.getId(), userDto.getId(), APPROVED, null))
+                .thenReturn(Optional.of(approved));
         var approvedFrom = bookingService.approve(
                 booking.getId(),
                 true,
                 userDto.getId()
         );
-        assertEquals(approvedFrom.getStatus(), approved.getStatus().name());
+        assertEquals(approvedFrom.getStatus(), APPROVED.name());
         assertEquals(approvedFrom.getId(), approved.getId());
+        verify(bookingIntervalIndex).add(booking.getId(), booking.getItem().getId(), booking.getStart(),
+                booking.getEnd());
+        verify(bookingRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void approveOverlappingBookingTest() {
+        when(bookingJdbcRepository.updateStatusIfWaiting(any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("excl_bookings_item_period",
+                        new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+        var exception = assertThrows(ConflictException.class,
+                () -> bookingService.approve(
+                        booking.getId(),
+                        true,
+                        userDto.getId())
+        );
+        assertEquals("Бронь#" + booking.getId() + " пересекается с уже одобренной бронью вещи",
+                exception.getMessage());
+    }
+
+    @Test
+    void approveStaleVersionTest() {
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(ofNullable(booking));
+        assertThrows(PreconditionFailedException.class,
+                () -> bookingService.approve(
+                        booking.getId(),
+                        true,
+                        userDto.getId(),
+                        5L)
+        );
+        verify(bookingIntervalIndex, never()).add(any(), any(), any(), any());
     }
 
     @Test
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalTreeTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void overlapsTest() {
+        var tree = new IntervalTree();
+        tree.add(1L, at(10), at(20));
+        tree.add(2L, at(30), at(40));
+
+        assertTrue(tree.overlaps(at(15), at(16)));
+        assertTrue(tree.overlaps(at(5), at(50)));
+        assertTrue(tree.overlaps(at(35), at(45)));
+        assertFalse(tree.overlaps(at(21), at(29)));
+        assertFalse(tree.overlaps(at(0), at(5)));
+    }
+
+    @Test
+    void adjacentIntervalsDoNotOverlapTest() {
+        var tree = new IntervalTree();
+        tree.add(1L, at(10), at(20));
+
+        assertFalse(tree.overlaps(at(20), at(30)));
+        assertFalse(tree.overlaps(at(0), at(10)));
+    }
+
+    @Test
+    void addSameBookingReplacesEndTest() {
+        var tree = new IntervalTree();
+        tree.add(1L, at(10), at(20));
+        tree.add(1L, at(10), at(15));
+
+        assertEquals(1, tree.size());
+        assertFalse(tree.overlaps(at(15), at(20)));
+    }
+
+    @Test
+    void matchesBruteForceTest() {
+        var random = new Random(42);
+        var tree = new IntervalTree();
+        List<long[]> intervals = new ArrayList<>();
+        for (long id = 0; id < 500; id++) {
+            var start = random.nextInt(10_000);
+            var end = start + 1 + random.nextInt(50);
+            tree.add(id, at(start), at(end));
+            intervals.add(new long[]{start, end});
+        }
+        for (int i = 0; i < 5_000; i++) {
+            long start = random.nextInt(10_100);
+            long end = start + 1 + random.nextInt(100);
+            var expected = intervals.stream().anyMatch(interval -> interval[0] < end && interval[1] > start);
+            assertEquals(expected, tree.overlaps(at(start), at(end)), "[" + start + ", " + end + ")");
+        }
+        assertEquals(500, tree.size());
+    }
+
+    private static LocalDateTime at(long minutes) {
+        return BASE.plusMinutes(minutes);
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.DatabasePlatform;
+
+import javax.sql.DataSource;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationListenerTest {
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private SessionFactory sessionFactory;
+    @Mock
+    private Cache cache;
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private DatabasePlatform databasePlatform;
+    private CacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        listener = new CacheInvalidationListener(entityManagerFactory, dataSource, databasePlatform);
+    }
+
+    @Test
+    void evictPublishedEntityTest() {
+        when(sessionFactory.getCache()).thenReturn(cache);
+
+        listener.evict(CacheInvalidationPublisher.toMessage(User.class.getName(), 5L));
+
+        verify(cache).evictEntityData(User.class.getName(), 5L);
+    }
+
+    @Test
+    void pollWithoutPostgresTest() {
+        listener.poll();
+
+        verifyNoInteractions(dataSource);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.notNullValue;
+
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class SecondLevelCacheTest {
+    private final UserService userService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+    private UserDto user;
+
+    @AfterEach
+    void cleanUp() {
+        if (user != null)
+            userService.delete(user.getId());
+    }
+
+    @Test
+    void getUserFromSecondLevelCacheTest() {
+        user = userService.save(new UserDto(null, "Lora", "lora.cache@mail.com"));
+        userService.get(user.getId());
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        // следующий HTTP-запрос: пользователи, запомненные в рамках прошлого, ему не видны
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        var found = userService.get(user.getId());
+
+        assertThat(found.getEmail(), equalTo(user.getEmail()));
+        assertThat(statistics.getSecondLevelCacheHitCount(), greaterThan(0L));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests").meter(), notNullValue());
+    }
+
+    @Test
+    void updateRefreshesCachedUserTest() {
+        user = userService.save(new UserDto(null, "Lora", "lora.cache@mail.com"));
+        userService.get(user.getId());
+
+        userService.update(new UserDto(null, "Laura", null), user.getId());
+
+        assertThat(userService.get(user.getId()).getName(), equalTo("Laura"));
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+
+// Две встроенные базы H2 без репликации: по тому, из какой базы пришли данные, видно, куда ушел запрос.
+// Отставание реплики берется из таблицы replica_lag на самой реплике.
+@SpringBootTest(properties = {
+        "shareit.datasource.replica.urls=" + ReplicaRoutingDataSourceTest.REPLICA_URL,
+        "shareit.datasource.replica.lag-query=SELECT lag FROM replica_lag",
+        "shareit.datasource.replica.max-lag=1000",
+        "shareit.datasource.replica.check-delay=3600000"})
+class ReplicaRoutingDataSourceTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:shareit-replica;DB_CLOSE_DELAY=-1";
+    private final JdbcTemplate replica = new JdbcTemplate(
+            new SimpleDriverDataSource(new org.h2.Driver(), REPLICA_URL, "shareit", "shareit"));
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+    @Autowired
+    private UserService userService;
+
+    @BeforeEach
+    void initializeReplica() {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(replica.getDataSource());
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (lag BIGINT)");
+        replica.update("DELETE FROM replica_lag");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+        replica.update("INSERT INTO users (name, email) VALUES ('Replica', 'replica@mail.com')");
+        routingDataSource.checkReplicas();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaTest() {
+        userService.save(new UserDto(null, "Primary", "primary@mail.com"));
+
+        assertThat(userService.getAll().stream().map(UserDto::getName).toList(), contains("Replica"));
+        assertThat(jdbcTemplate.queryForList("SELECT name FROM users", String.class), contains("Primary"));
+    }
+
+    @Test
+    void writesGoToPrimaryTest() {
+        var saved = userService.save(new UserDto(null, "Primary", "primary@mail.com"));
+        userService.update(new UserDto(null, "Updated", null), saved.getId());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM users WHERE id = ?", String.class, saved.getId()),
+                equalTo("Updated"));
+        assertThat(replica.queryForList("SELECT name FROM users WHERE name = 'Updated'", String.class), empty());
+    }
+
+    @Test
+    void staleReplicaFallsBackToPrimaryTest() {
+        userService.save(new UserDto(null, "Primary", "primary@mail.com"));
+        replica.update("UPDATE replica_lag SET lag = 5000");
+        routingDataSource.checkReplicas();
+
+        assertThat(userService.getAll().stream().map(UserDto::getName).toList(), contains("Primary"));
+
+        replica.update("UPDATE replica_lag SET lag = 0");
+        routingDataSource.checkReplicas();
+
+        assertThat(userService.getAll().stream().map(UserDto::getName).toList(), contains("Replica"));
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimaryTest() {
+        userService.save(new UserDto(null, "Primary", "primary@mail.com"));
+        replica.execute("DROP TABLE replica_lag");
+        routingDataSource.checkReplicas();
+
+        assertThat(userService.getAll().stream().map(UserDto::getName).toList(), contains("Primary"));
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.importer;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.error.ValidationException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+
+    @Test
+    void readsQuotedFieldsTest() throws IOException {
+        var reader = new CsvReader(new StringReader("1,\"Pen, blue\",\"say \"\"hi\"\"\"\n"));
+
+        assertThat(reader.next(), contains("1", "Pen, blue", "say \"hi\""));
+        assertThat(reader.next(), nullValue());
+    }
+
+    @Test
+    void emptyFieldIsNullAndQuotedEmptyIsBlankTest() throws IOException {
+        var reader = new CsvReader(new StringReader("1,,\"\"\n"));
+
+        assertThat(reader.next(), equalTo(Arrays.asList("1", null, "")));
+    }
+
+    @Test
+    void readsLineBreakInsideQuotesTest() throws IOException {
+        var reader = new CsvReader(new StringReader("1,\"first\nsecond\"\n\n2,third\n"));
+
+        assertThat(reader.next(), contains("1", "first\nsecond"));
+        assertThat(reader.getLine(), equalTo(2L));
+        assertThat(reader.next(), contains("2", "third"));
+        assertThat(reader.getLine(), equalTo(4L));
+    }
+
+    @Test
+    void unclosedQuoteTest() {
+        var reader = new CsvReader(new StringReader("1,\"open\n"));
+
+        assertThrows(ValidationException.class, reader::next);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.importer.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.StringReader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+
+/**
+ * Загрузка через COPY на настоящем PostgreSQL:
+ * SHAREIT_TEST_POSTGRES_URL=jdbc:postgresql://localhost:6541/shareit mvn test
+ */
+@Transactional
+@SpringBootTest(properties = {
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.datasource.url=${SHAREIT_TEST_POSTGRES_URL}",
+        "spring.datasource.username=${SHAREIT_TEST_POSTGRES_USER:shareit}",
+        "spring.datasource.password=${SHAREIT_TEST_POSTGRES_PASSWORD:shareit}",
+        "spring.sql.init.schema-locations=classpath:schema.sql,classpath:schema-postgresql.sql"})
+@EnabledIfEnvironmentVariable(named = "SHAREIT_TEST_POSTGRES_URL", matches = ".+")
+class ImportCopyTest {
+    @Autowired
+    private ImportService importService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importThroughCopyTest() {
+        var users = new StringBuilder("id,name,email\n");
+        for (int i = 1; i <= 5000; i++)
+            users.append(i).append(",\"User, ").append(i).append("\",user").append(i).append("@mail.com\n");
+
+        var report = importService.importUsers(new StringReader(users.toString()));
+        var items = importService.importItems(new StringReader(
+                "id,name,description,available,owner_id,request_id\n1,Pen,\"Blue \"\"pen\"\"\",true,1,\n"));
+
+        assertThat(report.getImported(), equalTo(5000L));
+        assertThat(items.getImported(), equalTo(1L));
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM users WHERE id = 42", String.class),
+                equalTo("User, 42"));
+        assertThat(jdbcTemplate.queryForObject("SELECT description FROM items WHERE id = 1", String.class),
+                equalTo("Blue \"pen\""));
+        assertThat(jdbcTemplate.queryForObject("INSERT INTO users (name, email) VALUES ('New', 'new@mail.com') " +
+                "RETURNING id", Long.class), equalTo(5001L));
+    }
+}
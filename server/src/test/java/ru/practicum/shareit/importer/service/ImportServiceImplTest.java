@@ -0,0 +1,133 @@
+package ru.practicum.shareit.importer.service;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.error.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.StringReader;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+@Transactional
+@SpringBootTest(properties = "shareit.import.chunk-size=2")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ImportServiceImplTest {
+    private static final String USERS = "id,name,email\n" +
+            "100,Joe,joe@mail.com\n" +
+            "101,Ann,ann@mail.com\n" +
+            "102,Bob,bob-mail.com\n" +
+            "103,\"Smith, John\",smith@mail.com\n" +
+            "104,Joe twin,joe@mail.com\n" +
+            "101,Ann again,ann2@mail.com\n";
+    private static final String ITEMS = "id,name,description,available,owner_id,request_id\n" +
+            "200,Pen,Blue pen,true,100,\n" +
+            "201,Drill,Power drill,false,101,\n" +
+            "202,,No name,true,100,\n" +
+            "203,Saw,Hand saw,true,999,\n" +
+            "204,Brush,Paint brush,maybe,100,\n";
+    private final ImportService importService;
+    private final UserService userService;
+    private final ItemService itemService;
+
+    @Test
+    void importUsersTest() {
+        var report = importService.importUsers(new StringReader(USERS));
+
+        assertThat(report.getRead(), equalTo(6L));
+        assertThat(report.getImported(), equalTo(3L));
+        assertThat(report.getRejected(), equalTo(3L));
+        assertThat(report.getErrors(), containsInAnyOrder(
+                startsWith("Строка 4: Incorrect email"),
+                startsWith("Строка 6: Пользователь с email: joe@mail.com уже существует"),
+                startsWith("Строка 7: Запись с id#101 уже существует")));
+        assertThat(userService.get(103L).getName(), equalTo("Smith, John"));
+    }
+
+    @Test
+    void importedIdsAreNotReusedTest() {
+        importService.importUsers(new StringReader(USERS));
+
+        var user = userService.save(new UserDto(null, "Kate", "kate@mail.com"));
+
+        assertThat(user.getId(), greaterThan(103L));
+    }
+
+    @Test
+    void importItemsTest() {
+        importService.importUsers(new StringReader(USERS));
+
+        var report = importService.importItems(new StringReader(ITEMS));
+        var item = itemService.save(new ItemDto(null, "Hammer", "Big hammer", true, 100L, null), null, 100L);
+
+        assertThat(report.getImported(), equalTo(2L));
+        assertThat(report.getErrors(), containsInAnyOrder(
+                startsWith("Строка 4: Название вещи не может быть пустым"),
+                startsWith("Строка 5: Пользователь с ID #999 не существует"),
+                startsWith("Строка 6: Некорректное значение в колонке available")));
+        assertThat(itemService.get(201L, 101L).getAvailable(), is(false));
+        assertThat(item.getId(), greaterThan(201L));
+    }
+
+    @Test
+    void importBookingsTest() {
+        importService.importUsers(new StringReader(USERS));
+        importService.importItems(new StringReader(ITEMS));
+        var bookings = "id,start_date,end_date,item_id,booker_id,status\n" +
+                "300," + now().minusDays(3).withNano(0) + "," + now().minusDays(2).withNano(0) + ",200,101,APPROVED\n" +
+                "301," + now().minusDays(3).withNano(0) + "," + now().minusDays(2).withNano(0) + ",200,100,APPROVED\n" +
+                "302," + now().minusDays(1).withNano(0) + "," + now().minusDays(2).withNano(0) + ",200,101,APPROVED\n" +
+                "303," + now().plusDays(1).withNano(0) + "," + now().plusDays(2).withNano(0) + ",200,101,LOST\n";
+
+        var report = importService.importBookings(new StringReader(bookings));
+        var item = itemService.get(200L, 100L);
+
+        assertThat(report.getImported(), equalTo(1L));
+        assertThat(report.getErrors(), containsInAnyOrder(
+                startsWith("Строка 3: Вещь#200 не может быть забронирована владельцем"),
+                startsWith("Строка 4: Некорректная дата окончания бронирования"),
+                startsWith("Строка 5: Неизвестный статус бронирования: LOST")));
+        assertThat(item.getLastBooking().getId(), equalTo(300L));
+        assertThat(item.getNextBooking(), nullValue());
+    }
+
+    @Test
+    void importOverlappingApprovedBookingsTest() {
+        importService.importUsers(new StringReader(USERS));
+        importService.importItems(new StringReader(ITEMS));
+        var start = now().plusDays(1).withNano(0);
+        var first = "id,start_date,end_date,item_id,booker_id,status\n" +
+                "300," + start + "," + start.plusDays(2) + ",200,101,APPROVED\n";
+        var second = "id,start_date,end_date,item_id,booker_id,status\n" +
+                "310," + start.plusDays(5) + "," + start.plusDays(6) + ",200,101,APPROVED\n" +
+                "311," + start.plusDays(1) + "," + start.plusDays(3) + ",200,101,APPROVED\n" +
+                "312," + start.plusDays(2) + "," + start.plusDays(3) + ",200,101,APPROVED\n" +
+                "313," + start.plusDays(5).plusHours(1) + "," + start.plusDays(7) + ",200,101,APPROVED\n" +
+                "314," + start.plusDays(5).plusHours(1) + "," + start.plusDays(7) + ",200,101,WAITING\n";
+
+        importService.importBookings(new StringReader(first));
+        var report = importService.importBookings(new StringReader(second));
+
+        assertThat(report.getImported(), equalTo(3L));
+        assertThat(report.getRejected(), equalTo(2L));
+        assertThat(report.getErrors(), containsInAnyOrder(
+                startsWith("Строка 3: Одобренная бронь вещи#200 пересекается с другой"),
+                startsWith("Строка 5: Одобренная бронь вещи#200 пересекается с другой")));
+    }
+
+    @Test
+    void importWrongHeaderTest() {
+        assertThrows(ValidationException.class,
+                () -> importService.importUsers(new StringReader("name,email\nJoe,joe@mail.com\n")));
+    }
+}
@@ -6,14 +6,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.error.NotFoundException;
+import ru.practicum.shareit.error.PreconditionFailedException;
 import org.springframework.test.web.servlet.MockMvc;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.utils.CursorPage;
+import ru.practicum.shareit.utils.StreamingResponses;
 import org.junit.jupiter.api.Test;
 
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -36,6 +41,8 @@ class ItemControllerTest {
     ItemRequestService itemRequestService;
     @MockBean
     ItemService itemService;
+    @MockBean
+    StreamingResponses streamingResponses;
     @Autowired
     ObjectMapper mapper;
     @Autowired
@@ -112,6 +119,38 @@ class ItemControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void saveAllTest() throws Exception {
+        when(itemService.saveAll(any(), anyLong()))
+                .thenReturn(of(
+                        ItemBatchResultDto.builder().index(0).status(201).item(itemDto).build(),
+                        ItemBatchResultDto.builder().index(1).status(400).error("Имя не может быть пустым").build()));
+        mvc.perform(post("/items/batch")
+                        .content(mapper.writeValueAsString(of(itemDto, ItemDto.builder().build())))
+                        .header(headerSharerUserId, 1)
+                        .contentType(APPLICATION_JSON)
+                        .characterEncoding(UTF_8)
+                        .accept(APPLICATION_JSON)
+                )
+                .andExpect(jsonPath("$[0].status", is(201)))
+                .andExpect(jsonPath("$[0].item.id", is(itemDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].status", is(400)))
+                .andExpect(jsonPath("$[1].error", is("Имя не может быть пустым")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllByIdTest() throws Exception {
+        when(itemService.getAllById(of(1L, 2L), 1L))
+                .thenReturn(of(itemExtendedDto));
+        mvc.perform(get("/items")
+                        .param("ids", "1,2")
+                        .header(headerSharerUserId, 1))
+                .andExpect(jsonPath("$[0].id", is(itemExtendedDto.getId()), Long.class))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void getAllItemsTest() throws Exception {
         when(itemService.getAllItems(anyLong(), anyInt(), anyInt()))
@@ -128,6 +167,21 @@ class ItemControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAllItemsAfterCursorTest() throws Exception {
+        when(itemService.getAllItemsAfter(anyLong(), anyString(), anyInt()))
+                .thenReturn(new CursorPage<>(of(itemExtendedDto), "MQ"));
+        mvc.perform(get("/items")
+                        .header(headerSharerUserId, 1)
+                        .param("size", "1")
+                        .param("cursor", "")
+                )
+                .andExpect(jsonPath("$[0].id", is(itemExtendedDto.getId()), Long.class))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string("X-Next-Cursor", "MQ"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void getItemTest() throws Exception {
         when(itemService.get(any(), anyLong()))
@@ -143,7 +197,7 @@ class ItemControllerTest {
 
     @Test
     void updateTest() throws Exception {
-        when(itemService.update(any(), anyLong()))
+        when(itemService.update(any(), anyLong(), any()))
                 .thenReturn(itemDto);
         mvc.perform(patch("/items/{itemId}", 1)
                         .content(mapper.writeValueAsString(itemDto))
@@ -158,6 +212,53 @@ class ItemControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void updateIfMatchTest() throws Exception {
+        var updated = ItemDto.builder()
+                .id(1L)
+                .name("test")
+                .available(true)
+                .version(4L)
+                .build();
+        when(itemService.update(any(), anyLong(), eq(3L)))
+                .thenReturn(updated);
+        mvc.perform(patch("/items/{itemId}", 1)
+                        .content(mapper.writeValueAsString(itemDto))
+                        .header(headerSharerUserId, 1)
+                        .header("If-Match", "\"3\"")
+                        .contentType(APPLICATION_JSON)
+                        .characterEncoding(UTF_8)
+                )
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updatePreconditionFailedExceptionTest() throws Exception {
+        when(itemService.update(any(), anyLong(), eq(3L)))
+                .thenThrow(PreconditionFailedException.class);
+        mvc.perform(patch("/items/{itemId}", 1)
+                        .content(mapper.writeValueAsString(itemDto))
+                        .header(headerSharerUserId, 1)
+                        .header("If-Match", "\"3\"")
+                        .contentType(APPLICATION_JSON)
+                        .characterEncoding(UTF_8)
+                )
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateInvalidIfMatchTest() throws Exception {
+        mvc.perform(patch("/items/{itemId}", 1)
+                        .content(mapper.writeValueAsString(itemDto))
+                        .header(headerSharerUserId, 1)
+                        .header("If-Match", "W/\"abc\"")
+                        .contentType(APPLICATION_JSON)
+                        .characterEncoding(UTF_8)
+                )
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void deleteItem() throws Exception {
         mvc.perform(delete("/items/{itemId}", 1)
@@ -200,6 +301,22 @@ class ItemControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void searchAfterCursorTest() throws Exception {
+        when(itemService.searchAfter(anyString(), anyLong(), anyString(), anyInt()))
+                .thenReturn(new CursorPage<>(of(itemDto), null));
+        mvc.perform(get("/items/search")
+                        .header(headerSharerUserId, 1)
+                        .param("size", "2")
+                        .param("cursor", "MQ")
+                        .param("text", "test")
+                )
+                .andExpect(jsonPath("$[0].id", is(itemDto.getId()), Long.class))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void saveValidationExceptionTest() throws Exception {
         when(itemService.save(any(), any(), anyLong()))
@@ -216,7 +333,7 @@ class ItemControllerTest {
 
     @Test
     void updateNotFoundExceptionTest() throws Exception {
-        when(itemService.update(any(), anyLong()))
+        when(itemService.update(any(), anyLong(), any()))
                 .thenThrow(NotFoundException.class);
         mvc.perform(patch("/items/{itemId}", 1)
                         .header(headerSharerUserId, 1)
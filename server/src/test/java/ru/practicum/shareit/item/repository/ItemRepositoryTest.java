@@ -1,23 +1,34 @@
 package ru.practicum.shareit.item.repository;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.RowStreams;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
 
 @DataJpaTest
+@Import({ItemJdbcRepository.class, RowStreams.class})
 class ItemRepositoryTest {
     @Autowired
     private TestEntityManager entityManager;
     @Autowired
     ItemRepository itemRepository;
+    @Autowired
+    ItemJdbcRepository itemJdbcRepository;
     User user = User.builder()
             .id(null)
             .name("Smith")
@@ -72,4 +83,35 @@ class ItemRepositoryTest {
         var items = itemRepository.search("brick");
         assertThat(items, empty());
     }
+
+    @Test
+    void shouldReturnAllAvailableItems() {
+        item3.setAvailable(false);
+        entityManager.flush();
+        var items = new ArrayList<ItemDto>();
+        itemJdbcRepository.streamAvailable().forEach(items::add);
+        assertThat(items, hasSize(2));
+        assertThat(items.get(0).getId(), lessThan(items.get(1).getId()));
+        assertThat(items.get(0).getOwnerId(), equalTo(user.getId()));
+        assertThat(items.get(0).getRequestId(), nullValue());
+    }
+
+    @Test
+    void shouldNotLoadOwnerWithItem() {
+        entityManager.flush();
+        entityManager.clear();
+        var item = itemRepository.findById(item1.getId()).orElseThrow();
+        assertThat(Hibernate.isInitialized(item.getOwner()), is(false));
+        assertThat(item.getOwner().getId(), equalTo(user.getId()));
+    }
+
+    @Test
+    void shouldFindItemsDeletedWithUser() {
+        var other = entityManager.persist(new User(null, "Jones", "jones@mail.ru"));
+        var request = entityManager.persist(new ItemRequest(null, "pen", user, LocalDateTime.now()));
+        var answer = entityManager.persist(new Item(null, "pen4", "pen4", true, other, request, null));
+        entityManager.persist(new Item(null, "pen5", "pen5", true, other, null, null));
+        var ids = itemRepository.findIdsDeletedWithUser(user.getId());
+        assertThat(ids, containsInAnyOrder(item1.getId(), item2.getId(), item3.getId(), answer.getId()));
+    }
 }
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item.repository;
+
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.notNullValue;
+
+
+/**
+ * Нативные запросы полнотекстового и триграммного поиска на настоящем PostgreSQL,
+ * с отображением строк на сущность Item:
+ * SHAREIT_TEST_POSTGRES_URL=jdbc:postgresql://localhost:6541/shareit mvn test
+ */
+@Transactional
+@SpringBootTest(properties = {
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.datasource.url=${SHAREIT_TEST_POSTGRES_URL}",
+        "spring.datasource.username=${SHAREIT_TEST_POSTGRES_USER:shareit}",
+        "spring.datasource.password=${SHAREIT_TEST_POSTGRES_PASSWORD:shareit}",
+        "spring.sql.init.schema-locations=classpath:schema.sql,classpath:schema-postgresql.sql",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"})
+@EnabledIfEnvironmentVariable(named = "SHAREIT_TEST_POSTGRES_URL", matches = ".+")
+class ItemSearchQueriesTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ItemRepository itemRepository;
+    private Long first;
+    private Long second;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Owner', 'owner@search.test')");
+        var owner = jdbcTemplate.queryForObject(
+                "SELECT id FROM users WHERE email = 'owner@search.test'", Long.class);
+        first = insertItem("Перфоратор", "Ударный перфоратор", true, owner);
+        second = insertItem("Перфоратор-миксер", "Аккумуляторный", true, owner);
+        insertItem("Перфоратор", "Сломан", false, owner);
+        insertItem("Отвертка", "Крестовая", true, owner);
+    }
+
+    @Test
+    void searchFullTextTest() {
+        assertFound(itemRepository.searchFullText("перфоратор"), first, second);
+        assertFound(itemRepository.searchFullText("перфоратор", PageRequest.of(1, 1)), second);
+    }
+
+    @Test
+    void searchFullTextAfterTest() {
+        assertFound(itemRepository.searchFullTextAfter("перфоратор", first, 10), second);
+    }
+
+    @Test
+    void searchTrigramTest() {
+        var pattern = "%перфор%";
+        assertFound(itemRepository.searchTrigram(pattern), first, second);
+        assertFound(itemRepository.searchTrigram(pattern, PageRequest.of(1, 1)), second);
+    }
+
+    @Test
+    void searchTrigramAfterTest() {
+        assertFound(itemRepository.searchTrigramAfter("%перфор%", first, 10), second);
+    }
+
+    private static void assertFound(List<Item> items, Long... ids) {
+        assertThat(items.stream().map(Item::getId).toList(), contains(ids));
+        assertThat(items, everyItem(hasProperty("version", notNullValue())));
+    }
+
+    private Long insertItem(String name, String description, boolean available, Long owner) {
+        return jdbcTemplate.queryForObject("INSERT INTO items (name, description, available, owner_id) " +
+                        "VALUES (?, ?, ?, ?) RETURNING id",
+                Long.class, name, description, available, owner);
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.DatabasePlatform;
+
+import static java.util.List.of;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+@ExtendWith(MockitoExtension.class)
+class FullTextItemSearchTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private DatabasePlatform databasePlatform;
+    private Item item;
+
+    @BeforeEach
+    void initialize() {
+        item = new Item(
+                1L,
+                "Дрель",
+                "Ударная дрель",
+                true,
+                new User(1L, "Ivan", "ivan@mail.com"),
+                null,
+                0L);
+    }
+
+    @Test
+    void searchOnPostgresTest() {
+        when(databasePlatform.isPostgres())
+                .thenReturn(true);
+        when(itemRepository.searchFullText(anyString(), any()))
+                .thenReturn(of(item));
+        var search = new FullTextItemSearch(itemRepository, databasePlatform)
+                .search("дрель", 0, 10);
+        assertEquals(search.size(), 1);
+        assertEquals(search.get(0).getId(), item.getId());
+        verify(itemRepository, never()).search(anyString(), any());
+    }
+
+    @Test
+    void searchFallbackOnH2Test() {
+        when(databasePlatform.isPostgres())
+                .thenReturn(false);
+        when(itemRepository.search(anyString(), any()))
+                .thenReturn(new PageImpl<>(of(item)));
+        var search = new FullTextItemSearch(itemRepository, databasePlatform)
+                .search("дрел", 0, 10);
+        assertEquals(search.size(), 1);
+        verify(itemRepository, never()).searchFullText(anyString(), any());
+    }
+}
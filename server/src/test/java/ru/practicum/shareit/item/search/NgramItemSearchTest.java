@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemJdbcRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.utils.RowStream;
+
+import static java.util.List.of;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+@ExtendWith(MockitoExtension.class)
+class NgramItemSearchTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemJdbcRepository itemJdbcRepository;
+    private NgramItemSearch itemSearch;
+
+    @BeforeEach
+    void initialize() {
+        itemSearch = new NgramItemSearch(itemRepository, itemJdbcRepository);
+        when(itemJdbcRepository.streamAvailable())
+                .thenReturn(RowStream.of(of(
+                        new ItemDto(1L, "Дрель", "Ударная дрель", true, 1L, null),
+                        new ItemDto(2L, "Pen", "Blue pen", true, 1L, null),
+                        new ItemDto(3L, "Отвертка", "Крестовая", true, 2L, null))));
+        itemSearch.rebuild();
+    }
+
+    @Test
+    void searchSubstringIgnoreCaseTest() {
+        var search = itemSearch.search("дрел", null, null);
+        assertEquals(search.size(), 1);
+        assertEquals(search.get(0).getId(), 1L);
+        verify(itemRepository, never()).search(anyString());
+    }
+
+    @Test
+    void searchShortQueryTest() {
+        var search = itemSearch.search("e", null, null);
+        assertEquals(search.size(), 1);
+        assertEquals(search.get(0).getId(), 2L);
+    }
+
+    @Test
+    void searchGramsFromDifferentFieldsTest() {
+        assertEquals(itemSearch.search("penblue", null, null).size(), 0);
+        assertEquals(itemSearch.search("нет такого", null, null).size(), 0);
+    }
+
+    @Test
+    void searchPageTest() {
+        itemSearch.index(new ItemDto(4L, "Дрель-шуруповерт", "Аккумуляторная", true, 2L, null));
+        var firstPage = itemSearch.search("ДРЕЛЬ", 0, 1);
+        var secondPage = itemSearch.search("ДРЕЛЬ", 1, 1);
+        assertEquals(firstPage.get(0).getId(), 1L);
+        assertEquals(secondPage.get(0).getId(), 4L);
+        assertEquals(secondPage.size(), 1);
+    }
+
+    @Test
+    void searchAfterTest() {
+        itemSearch.index(new ItemDto(4L, "Дрель-шуруповерт", "Аккумуляторная", true, 2L, null));
+        var search = itemSearch.searchAfter("дрель", 1L, Limit.of(10));
+        assertEquals(search.size(), 1);
+        assertEquals(search.get(0).getId(), 4L);
+    }
+
+    @Test
+    void indexUpdatedItemTest() {
+        itemSearch.index(new ItemDto(2L, "Pencil", "Red pencil", true, 1L, null));
+        assertEquals(itemSearch.search("blue", null, null).size(), 0);
+        assertEquals(itemSearch.search("pencil", null, null).get(0).getId(), 2L);
+
+        itemSearch.index(new ItemDto(2L, "Pencil", "Red pencil", false, 1L, null));
+        assertEquals(itemSearch.search("pencil", null, null).size(), 0);
+    }
+
+    @Test
+    void removeItemTest() {
+        itemSearch.remove(3L);
+        assertEquals(itemSearch.search("отвертка", null, null).size(), 0);
+        assertEquals(itemSearch.search("дрель", null, null).size(), 1);
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.SqlRecorder;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+
+/**
+ * Проверка плана запроса на настоящем PostgreSQL:
+ * SHAREIT_TEST_POSTGRES_URL=jdbc:postgresql://localhost:6541/shareit mvn test
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.datasource.url=${SHAREIT_TEST_POSTGRES_URL}",
+        "spring.datasource.username=${SHAREIT_TEST_POSTGRES_USER:shareit}",
+        "spring.datasource.password=${SHAREIT_TEST_POSTGRES_PASSWORD:shareit}",
+        "spring.sql.init.schema-locations=classpath:schema.sql,classpath:schema-postgresql.sql",
+        "shareit.item.search.mode=trigram",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.SqlRecorder"})
+@EnabledIfEnvironmentVariable(named = "SHAREIT_TEST_POSTGRES_URL", matches = ".+")
+class TrigramItemSearchPlanTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ItemService itemService;
+
+    @Test
+    void searchUsesTrigramIndexTest() {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Owner', 'owner@mail.com')");
+        jdbcTemplate.update("INSERT INTO items (name, description, available, owner_id) " +
+                "SELECT 'Вещь ' || n, md5(n::text), TRUE, (SELECT MIN(id) FROM users) " +
+                "FROM generate_series(1, 20000) n");
+        jdbcTemplate.update("INSERT INTO items (name, description, available, owner_id) " +
+                "SELECT 'Дрель', 'Ударная', TRUE, MIN(id) FROM users");
+        jdbcTemplate.execute("ANALYZE items");
+
+        var found = itemService.search("дрел", null, 0, 10);
+        // вторая страница: в запросе есть и LIMIT, и OFFSET; при from == size оба параметра равны 10
+        SqlRecorder.STATEMENTS.clear();
+        itemService.search("дрел", null, 10, 10);
+        var sql = SqlRecorder.STATEMENTS.stream()
+                .filter(statement -> statement.contains("ILIKE"))
+                .findFirst()
+                .orElseThrow();
+        var plan = explain(sql, TrigramItemSearch.toSubstringPattern("дрел"), 10);
+
+        assertThat(found, hasSize(1));
+        assertThat(found.get(0).getName(), equalTo("Дрель"));
+        assertThat(sql.toLowerCase(), allOf(containsString("order by item.id"), containsString("offset")));
+        assertThat(plan, containsString("idx_items_name_trgm"));
+        assertThat(plan, not(containsString("Seq Scan on items")));
+    }
+
+    private String explain(String sql, String pattern, int pageParameter) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (var statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                var metaData = statement.getParameterMetaData();
+                for (int i = 1; i <= metaData.getParameterCount(); i++) {
+                    if (metaData.getParameterType(i) == Types.VARCHAR)
+                        statement.setString(i, pattern);
+                    else
+                        statement.setInt(i, pageParameter);
+                }
+                return readPlan(statement);
+            }
+        });
+    }
+
+    private static String readPlan(PreparedStatement statement) throws SQLException {
+        var plan = new StringBuilder();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next())
+                plan.append(resultSet.getString(1)).append('\n');
+        }
+        return plan.toString();
+    }
+}
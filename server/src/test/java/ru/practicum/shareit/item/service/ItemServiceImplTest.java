@@ -3,27 +3,36 @@ package ru.practicum.shareit.item.service;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.booking.dto.BookingSavingDto;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.error.PreconditionFailedException;
 import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.ArrayList;
+
 import static java.time.LocalDateTime.now;
 import static java.util.List.of;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 
 @Transactional
@@ -135,6 +144,23 @@ class ItemServiceImplTest {
         assertThat(item.getId(), notNullValue());
     }
 
+    @Test
+    void updateIncrementsVersionTest() {
+        var version = itemService.get(itemDto.getId(), itemDto.getOwnerId()).getVersion();
+        var dto = new ItemDto(itemDto.getId(), "Bear", null, null, userDto.getId(), null);
+        var updated = itemService.update(dto, itemDto.getOwnerId(), version);
+        assertThat(updated.getVersion(), equalTo(version + 1));
+    }
+
+    @Test
+    void updateStaleVersionTest() {
+        var version = itemService.get(itemDto.getId(), itemDto.getOwnerId()).getVersion();
+        var dto = new ItemDto(itemDto.getId(), "Bear", null, null, userDto.getId(), null);
+        itemService.update(dto, itemDto.getOwnerId(), version);
+        assertThrows(PreconditionFailedException.class,
+                () -> itemService.update(dto, itemDto.getOwnerId(), version));
+    }
+
     @Test
     void getTest() {
         var itemAllFieldsDto = itemService.get(itemDto.getId(), itemDto.getOwnerId());
@@ -194,6 +220,106 @@ class ItemServiceImplTest {
         assertThat(items.size(), equalTo(allItems.size()));
     }
 
+    @Test
+    void getAllWithLastAndNextBookingsTest() {
+        var booker = userService.save(
+                new UserDto(
+                        null,
+                        "Nick",
+                        "nick@mail.com")
+        );
+        var item = entityManager.find(Item.class, itemDto.getId());
+        var bookerEntity = entityManager.find(User.class, booker.getId());
+        var past = Booking.builder()
+                .start(now().minusDays(2))
+                .end(now().minusDays(1))
+                .item(item)
+                .booker(bookerEntity)
+                .status(BookingState.APPROVED)
+                .build();
+        var future = Booking.builder()
+                .start(now().plusDays(1))
+                .end(now().plusDays(2))
+                .item(item)
+                .booker(bookerEntity)
+                .status(BookingState.WAITING)
+                .build();
+        var farFuture = Booking.builder()
+                .start(now().plusDays(3))
+                .end(now().plusDays(4))
+                .item(item)
+                .booker(bookerEntity)
+                .status(BookingState.WAITING)
+                .build();
+        entityManager.persist(past);
+        entityManager.persist(future);
+        entityManager.persist(farFuture);
+        itemService.save(
+                new ItemDto(
+                        null,
+                        "Doll",
+                        "Tall doll",
+                        true,
+                        userDto.getId(),
+                        null),
+                null,
+                userDto.getId()
+        );
+
+        var allItems = itemService.getAllItems(userDto.getId(), 0, 10);
+
+        assertThat(allItems, hasSize(2));
+        assertThat(allItems.get(0).getId(), equalTo(itemDto.getId()));
+        assertThat(allItems.get(0).getLastBooking().getId(), equalTo(past.getId()));
+        assertThat(allItems.get(0).getNextBooking().getId(), equalTo(future.getId()));
+        assertThat(allItems.get(0).getComments(), empty());
+        assertThat(allItems.get(1).getLastBooking(), nullValue());
+        assertThat(allItems.get(1).getNextBooking(), nullValue());
+    }
+
+    @Test
+    void getAllItemsAfterCursorTest() {
+        var second = itemService.save(
+                new ItemDto(null, "Doll", "Tall doll", true, userDto.getId(), null),
+                null,
+                userDto.getId());
+        var third = itemService.save(
+                new ItemDto(null, "Ball", "Red ball", true, userDto.getId(), null),
+                null,
+                userDto.getId());
+
+        var firstPage = itemService.getAllItemsAfter(userDto.getId(), "", 2);
+        var secondPage = itemService.getAllItemsAfter(userDto.getId(), firstPage.getNextCursor(), 2);
+
+        assertThat(firstPage.getContent(), hasSize(2));
+        assertThat(firstPage.getContent().get(0).getId(), equalTo(itemDto.getId()));
+        assertThat(firstPage.getContent().get(1).getId(), equalTo(second.getId()));
+        assertThat(firstPage.getNextCursor(), notNullValue());
+        assertThat(secondPage.getContent(), hasSize(1));
+        assertThat(secondPage.getContent().get(0).getId(), equalTo(third.getId()));
+        assertThat(secondPage.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void searchAfterCursorTest() {
+        var second = itemService.save(
+                new ItemDto(null, "Pencil", "Black pencil", true, userDto.getId(), null),
+                null,
+                userDto.getId());
+
+        var firstPage = itemService.searchAfter("pen", userDto.getId(), "", 1);
+        var secondPage = itemService.searchAfter("pen", userDto.getId(), firstPage.getNextCursor(), 1);
+
+        assertThat(firstPage.getContent().get(0).getId(), equalTo(itemDto.getId()));
+        assertThat(secondPage.getContent().get(0).getId(), equalTo(second.getId()));
+    }
+
+    @Test
+    void searchAfterInvalidCursorTest() {
+        assertThrows(ValidationException.class,
+                () -> itemService.searchAfter("pen", userDto.getId(), "not a cursor", 1));
+    }
+
     @Test
     void searchNotAvailableItemTest() {
         itemDto = itemService.save(
@@ -248,7 +374,7 @@ class ItemServiceImplTest {
 
 
     @Test
-    void getItemsByRequestIdTest() {
+    void saveItemForRequestTest() {
         var requester = userService.save(
                 new UserDto(
                         null,
@@ -275,7 +401,10 @@ class ItemServiceImplTest {
                 itemRequestDto,
                 userDto.getId()
         );
-        var itemsByRequestId = itemService.getItemsByRequestId(itemRequestDto.getId());
+        // запрос с вещами читается JDBC-репозиторием, мимо контекста Hibernate
+        entityManager.flush();
+        var itemsByRequestId = itemRequestService.getItemRequestById(itemRequestDto.getId(), requester.getId())
+                .getItems();
         var itemsByRequest = entityManager.createQuery(
                         "SELECT item " +
                                 "FROM Item item " +
@@ -288,6 +417,70 @@ class ItemServiceImplTest {
         assertThat(itemsByRequestId, notNullValue());
     }
 
+    @Test
+    void getAllByIdTest() {
+        var comment = saveCommentDto("Nice pen", new UserDto(15L, "Bob", "bob@mail.com"));
+        var other = itemService.save(
+                new ItemDto(null, "Pencil", "Red pencil", true, userDto.getId(), null), null, userDto.getId());
+        var ids = of(other.getId(), 999L, itemDto.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        var byOwner = itemService.getAllById(ids, userDto.getId());
+        var byBooker = itemService.getAllById(ids, itemDto.getOwnerId() + 1);
+
+        assertThat(byOwner.stream().map(ItemDto::getId).toList(), contains(other.getId(), itemDto.getId()));
+        assertThat(byOwner.get(1).getLastBooking(), notNullValue());
+        assertThat(byOwner.get(1).getComments(), hasSize(1));
+        assertThat(byOwner.get(1).getComments().get(0).getText(), equalTo(comment.getText()));
+        assertThat(byBooker.get(1).getLastBooking(), nullValue());
+        assertThat(byBooker.get(1).getComments(), hasSize(1));
+    }
+
+    @Test
+    void saveAllTest() {
+        var request = itemRequestService.save(
+                new ItemRequestDto(null, "Need a pencil", null, now(), of()),
+                userDto.getId());
+        var itemDtos = new ArrayList<ItemDto>();
+        itemDtos.add(new ItemDto(null, "Pencil", "Red pencil", true, null, request.getId()));
+        itemDtos.add(new ItemDto(null, "", "No name", true, null, null));
+        itemDtos.add(new ItemDto(null, "Brush", "Paint brush", true, null, 999L));
+        itemDtos.add(new ItemDto(null, "Ruler", "Wooden ruler", null, null, null));
+        itemDtos.add(new ItemDto(null, "Eraser", "Soft eraser", false, null, null));
+
+        var results = itemService.saveAll(itemDtos, userDto.getId());
+
+        assertThat(results.stream().map(ItemBatchResultDto::getStatus).toList(), contains(201, 400, 404, 400, 201));
+        assertThat(results.get(0).getItem().getRequestId(), equalTo(request.getId()));
+        assertThat(results.get(0).getItem().getOwnerId(), equalTo(userDto.getId()));
+        assertThat(results.get(1).getItem(), nullValue());
+        assertThat(results.get(2).getError(), notNullValue());
+        assertThat(results.get(4).getItem().getId(), notNullValue());
+        assertThat(itemService.getAllItems(userDto.getId(), 0, 10), hasSize(3));
+    }
+
+    @Test
+    void saveAllBatchesInsertsTest() {
+        var statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        var itemDtos = new ArrayList<ItemDto>();
+        for (int i = 0; i < 120; i++)
+            itemDtos.add(new ItemDto(null, "Pen " + i, "Pen number " + i, true, null, null));
+        statistics.clear();
+
+        var results = itemService.saveAll(itemDtos, userDto.getId());
+        entityManager.flush();
+
+        assertThat(results.stream().filter(result -> result.getStatus() == 201).count(), equalTo(120L));
+        // 120 строк: пара выборок, три обращения к последовательности и три пачки вставок
+        assertThat(statistics.getPrepareStatementCount(), lessThan(10L));
+    }
+
+    @Test
+    void saveAllEmptyTest() {
+        assertThrows(ValidationException.class, () -> itemService.saveAll(of(), userDto.getId()));
+    }
+
     @Test
     void searchEmptyResultTest() {
         itemDto = itemService.save(
@@ -335,7 +528,7 @@ class ItemServiceImplTest {
     }
 
     @Test
-    void getItemsByRequestIdEmptyResultTest() {
+    void itemRequestWithoutItemsTest() {
         var requester = userService.save(
                 new UserDto(
                         null,
@@ -351,7 +544,10 @@ class ItemServiceImplTest {
                         of()),
                 requester.getId()
         );
-        var itemsByRequestId = itemService.getItemsByRequestId(itemRequestDto.getId());
+        // запрос с вещами читается JDBC-репозиторием, мимо контекста Hibernate
+        entityManager.flush();
+        var itemsByRequestId = itemRequestService.getItemRequestById(itemRequestDto.getId(), requester.getId())
+                .getItems();
         var itemsByRequest = entityManager.createQuery(
                         "SELECT item " +
                                 "FROM Item item " +
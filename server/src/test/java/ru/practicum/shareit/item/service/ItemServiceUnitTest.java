@@ -7,25 +7,36 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.error.NotFoundException;
+import ru.practicum.shareit.error.PreconditionFailedException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemJdbcRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.item.search.LikeItemSearch;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.OptimisticRetry;
+import ru.practicum.shareit.utils.ReadPaths;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static java.time.LocalDateTime.now;
 import static java.util.List.of;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.item.mapper.ItemMapper.mapToItem;
 import static ru.practicum.shareit.item.mapper.ItemMapper.mapToItemDto;
 import static ru.practicum.shareit.user.mapper.UserMapper.mapToUser;
+import static ru.practicum.shareit.utils.ReadPath.JPA;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -37,7 +48,13 @@ class ItemServiceUnitTest {
     @Mock
     private ItemRepository itemRepository;
     @Mock
+    private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemJdbcRepository itemJdbcRepository;
+    @Mock
     private UserService userService;
+    @Mock
+    private OptimisticRetry optimisticRetry;
     private ItemService itemService;
     private ItemDto itemDto;
     private UserDto userDto;
@@ -48,9 +65,16 @@ class ItemServiceUnitTest {
         itemService = new ItemServiceImpl(
                 commentRepository,
                 itemRepository,
+                itemRequestRepository,
                 bookingService,
-                userService
+                userService,
+                new LikeItemSearch(itemRepository),
+                itemJdbcRepository,
+                new ReadPaths(JPA, JPA, JPA),
+                optimisticRetry
         );
+        lenient().when(optimisticRetry.execute(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
         userDto = new UserDto(
                 1L,
                 "Eddie",
@@ -61,7 +85,8 @@ class ItemServiceUnitTest {
                 "Testocket",
                 true,
                 mapToUser(userDto),
-                null);
+                null,
+                0L);
         itemDto = mapToItemDto(item);
     }
 
@@ -89,15 +114,26 @@ class ItemServiceUnitTest {
                 itemDto.getDescription(),
                 itemDto.getAvailable(),
                 mapToUser(userDto),
-                null
+                null,
+                1L
         );
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(item));
-        when(itemRepository.save(any()))
+        when(itemRepository.saveAndFlush(any()))
                 .thenReturn(updated);
         var update = itemService.update(mapToItemDto(updated), userDto.getId());
         assertNotEquals(dto.getName(), update.getName());
         assertEquals(dto.getId(), update.getId());
+        assertEquals(1L, update.getVersion());
+    }
+
+    @Test
+    void updateStaleVersionTest() {
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(item));
+        assertThrows(PreconditionFailedException.class,
+                () -> itemService.update(itemDto, userDto.getId(), item.getVersion() + 1));
+        verify(itemRepository, never()).saveAndFlush(any());
     }
 
     @Test
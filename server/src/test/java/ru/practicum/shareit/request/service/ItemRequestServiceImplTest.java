@@ -7,6 +7,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -15,8 +17,7 @@ import ru.practicum.shareit.user.service.UserService;
 import static java.time.LocalDateTime.now;
 import static java.util.List.of;
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.equalTo;
-import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.*;
 
 
 @Transactional
@@ -26,6 +27,7 @@ class ItemRequestServiceImplTest {
     private final ItemRequestService itemRequestService;
     private final EntityManager entityManager;
     private final UserService userService;
+    private final ItemService itemService;
     private ItemRequestDto itemRequestDto;
     private UserDto user;
 
@@ -144,4 +146,28 @@ class ItemRequestServiceImplTest {
         assertThat(allItemRequests.get(0).getId(), equalTo(itemRequests.get(0).getId()));
         assertThat(allItemRequests.size(), equalTo(itemRequests.size()));
     }
+
+    @Test
+    void getItemRequestsWithItemsTest() {
+        var request = itemRequestService.save(itemRequestDto, user.getId());
+        var emptyRequest = itemRequestService.save(new ItemRequestDto(null, "nobody answered", null, null, of()),
+                user.getId());
+        var owner = userService.save(new UserDto(null, "Clara", "clara@mail.ru"));
+        var second = itemService.save(new ItemDto(null, "Saw", "Hand \"saw\"", false, null, request.getId()),
+                request, owner.getId());
+        var first = itemService.save(new ItemDto(null, "Drill", "Power drill", true, null, request.getId()),
+                request, owner.getId());
+        entityManager.flush();
+
+        var byId = itemRequestService.getItemRequestById(request.getId(), owner.getId());
+        assertThat(byId.getDescription(), equalTo("description"));
+        assertThat(byId.getRequesterId(), equalTo(user.getId()));
+        assertThat(byId.getItems(), contains(second, first));
+
+        var others = itemRequestService.getAllItemRequests(0, 10, owner.getId());
+        assertThat(others, hasSize(2));
+        assertThat(others.stream().filter(dto -> dto.getId().equals(emptyRequest.getId())).findFirst()
+                .orElseThrow().getItems(), empty());
+        assertThat(itemRequestService.getAllItemRequests(user.getId()), equalTo(others));
+    }
 }
@@ -7,13 +7,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestJdbcRepository;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.Optional;
+
 import static java.time.LocalDateTime.now;
 import static java.util.List.of;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -21,6 +23,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.request.mapper.ItemRequestMapper.mapToItemRequest;
+import static ru.practicum.shareit.request.mapper.ItemRequestMapper.mapToItemRequestDto;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -31,7 +34,7 @@ class ItemRequestServiceUnitTest {
     private ItemRequestDto itemRequestDto;
     private ItemRequest itemRequest;
     @Mock
-    private ItemService itemService;
+    private ItemRequestJdbcRepository itemRequestJdbcRepository;
     @Mock
     private UserService userService;
     private UserDto userDto;
@@ -49,7 +52,7 @@ class ItemRequestServiceUnitTest {
                 now(),
                 of()
         );
-        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, userService, itemService);
+        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, userService, itemRequestJdbcRepository);
         itemRequest = mapToItemRequest(itemRequestDto, userDto);
     }
 
@@ -73,8 +76,8 @@ class ItemRequestServiceUnitTest {
     @Test
     void getItemRequestsTest() {
         saveItemRequestDto();
-        when(itemRequestRepository.findItemRequestByRequesterOrderByCreatedDesc(any()))
-                .thenReturn(of(itemRequest));
+        when(itemRequestJdbcRepository.findByRequester(any()))
+                .thenReturn(of(mapToItemRequestDto(itemRequest)));
         var allItemRequests = itemRequestService.getAllItemRequests(userDto.getId());
         assertEquals(allItemRequests.get(0).getId(), itemRequest.getId());
         assertEquals(allItemRequests.get(0).getItems().size(), 0);
@@ -84,19 +87,15 @@ class ItemRequestServiceUnitTest {
     @Test
     void getItemRequestsItemsTest() {
         saveItemRequestDto();
-        when(itemService.getItemsByRequests(any()))
-                .thenReturn(of(
-                                new ItemDto(
-                                        1L,
-                                        "Toy",
-                                        "my toy",
-                                        true,
-                                        3L,
-                                        1L)
-                        )
-                );
-        when(itemRequestRepository.findItemRequestByRequesterOrderByCreatedDesc(any()))
-                .thenReturn(of(itemRequest));
+        when(itemRequestJdbcRepository.findByRequester(any()))
+                .thenReturn(of(mapToItemRequestDto(itemRequest, of(
+                        new ItemDto(
+                                1L,
+                                "Toy",
+                                "my toy",
+                                true,
+                                3L,
+                                1L)))));
         var allItemRequests = itemRequestService.getAllItemRequests(userDto.getId());
         assertEquals(allItemRequests.get(0).getId(), itemRequest.getId());
         assertEquals(allItemRequests.get(0).getItems().size(), 1);
@@ -106,19 +105,15 @@ class ItemRequestServiceUnitTest {
     @Test
     void getItemRequestTest() {
         saveItemRequestDto();
-        when(itemService.getItemsByRequestId(any()))
-                .thenReturn(of(
-                                new ItemDto(
-                                        1L,
-                                        "toy",
-                                        "my toy",
-                                        true,
-                                        3L,
-                                        1L)
-                        )
-                );
-        when(itemRequestRepository.findById(any()))
-                .thenReturn(java.util.Optional.ofNullable(itemRequest));
+        when(itemRequestJdbcRepository.findById(any()))
+                .thenReturn(Optional.of(mapToItemRequestDto(itemRequest, of(
+                        new ItemDto(
+                                1L,
+                                "toy",
+                                "my toy",
+                                true,
+                                3L,
+                                1L)))));
         var itemRequestById = itemRequestService.getItemRequestById(2, userDto.getId());
         assertEquals(itemRequestById.getDescription(), itemRequest.getDescription());
         assertEquals(itemRequestById.getId(), itemRequest.getId());
@@ -128,7 +123,7 @@ class ItemRequestServiceUnitTest {
     @Test
     void getItemRequestsEmptyTest() {
         saveItemRequestDto();
-        when(itemRequestRepository.findItemRequestByRequesterOrderByCreatedDesc(any()))
+        when(itemRequestJdbcRepository.findByRequester(any()))
                 .thenReturn(of());
         var allItemRequests = itemRequestService.getAllItemRequests(userDto.getId());
         assertEquals(allItemRequests.size(), 0);
@@ -137,20 +132,16 @@ class ItemRequestServiceUnitTest {
     @Test
     void getAllItemRequestsTest() {
         saveItemRequestDto();
-        when(itemService.getItemsByRequests(any()))
-                .thenReturn(of(
-                                new ItemDto(
-                                        1L,
-                                        "toy",
-                                        "my toy",
-                                        true,
-                                        3L,
-                                        1L)
-                        )
-                );
-        when(itemRequestRepository.findItemRequestByRequester_IdIsNotOrderByCreatedDesc(any()))
-                .thenReturn(of(itemRequest));
-        var allItemRequests = itemRequestService.getAllItemRequests(null, null, userDto.getId());
+        when(itemRequestJdbcRepository.findByRequesterNot(any(), any()))
+                .thenReturn(of(mapToItemRequestDto(itemRequest, of(
+                        new ItemDto(
+                                1L,
+                                "toy",
+                                "my toy",
+                                true,
+                                3L,
+                                1L)))));
+        var allItemRequests = itemRequestService.getAllItemRequests(0, 10, userDto.getId());
         assertEquals(allItemRequests.get(0).getId(), itemRequest.getId());
         assertEquals(allItemRequests.get(0).getItems().size(), 1);
         assertEquals(allItemRequests.size(), 1);
@@ -160,10 +151,8 @@ class ItemRequestServiceUnitTest {
     void getItemRequestNotFoundTest() {
         when(userService.get(any()))
                 .thenReturn(userDto);
-        when(itemRequestRepository.findById(any()))
-                .thenThrow(NotFoundException.class);
-        when(itemService.getItemsByRequestId(any()))
-                .thenReturn(of());
+        when(itemRequestJdbcRepository.findById(any()))
+                .thenReturn(Optional.empty());
         assertThrows(NotFoundException.class,
                 () -> itemRequestService.getItemRequestById(42L, 42L));
     }
@@ -111,6 +111,18 @@ class UserControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAllByIdTest() throws Exception {
+        when(userService.getAllById(List.of(1L, 2L)))
+                .thenReturn(List.of(userDto));
+        mvc.perform(get("/users")
+                        .param("ids", "1,2")
+                )
+                .andExpect(jsonPath("$[0].id", is(userDto.getId()), Long.class))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void saveUserEmailExceptionTest() throws Exception {
         when(userService.save(any(UserDto.class)))
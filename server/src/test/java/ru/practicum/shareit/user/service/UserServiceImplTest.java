@@ -7,13 +7,20 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 
 @Transactional
@@ -117,6 +124,22 @@ class UserServiceImplTest {
         assertThat(usersAfter.size(), equalTo(2));
     }
 
+    @Test
+    void getAllByIdTest() {
+        var john = userService.save(saveUserDto("JohnyCash", "john@mail.com"));
+        var bobby = userService.save(saveUserDto("BobbySinger", "bobby@mail.com"));
+
+        var users = userService.getAllById(List.of(bobby.getId(), 999L, john.getId(), bobby.getId()));
+
+        assertThat(users, contains(bobby, john));
+    }
+
+    @Test
+    void getAllByIdTooManyIdsTest() {
+        var ids = LongStream.rangeClosed(1, 101).boxed().collect(Collectors.toList());
+        assertThrows(ValidationException.class, () -> userService.getAllById(ids));
+    }
+
     @Test
     void getAllTest() {
         addUsers();
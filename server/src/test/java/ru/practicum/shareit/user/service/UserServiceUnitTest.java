@@ -1,12 +1,19 @@
 package ru.practicum.shareit.user.service;
 
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import ru.practicum.shareit.error.EmailException;
 import ru.practicum.shareit.error.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -23,13 +30,19 @@ import static ru.practicum.shareit.user.mapper.UserMapper.mapToUser;
 class UserServiceUnitTest {
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private Cache cache;
     private UserService userService;
     private UserDto userDto;
     private User user;
 
     @BeforeEach
     void initialize() {
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, itemRepository, entityManagerFactory);
         userDto = UserDto.builder()
                 .id(1L)
                 .name("Paul")
@@ -103,6 +116,46 @@ class UserServiceUnitTest {
                 () -> userService.get(7L));
     }
 
+    @Test
+    void getOncePerRequestTest() {
+        when(userRepository.findById(1L))
+                .thenReturn(ofNullable(user));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            userService.get(1L);
+            assertEquals(userService.get(1L).getName(), userDto.getName());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getOutsideRequestTest() {
+        when(userRepository.findById(1L))
+                .thenReturn(ofNullable(user));
+        userService.get(1L);
+        userService.get(1L);
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void getAfterUpdateInRequestTest() {
+        var updatedUser = new UserDto(1L, "Nagel", "nagel@mail.com");
+        when(userRepository.findById(1L))
+                .thenReturn(ofNullable(user));
+        when(userRepository.save(any()))
+                .thenReturn(mapToUser(updatedUser));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            userService.get(1L);
+            userService.update(updatedUser, 1L);
+            assertEquals(userService.get(1L).getName(), updatedUser.getName());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
     @Test
     void updateUserEmailTest() {
         var userDto1 = new UserDto(1L, null, "john@mail.com");
@@ -144,6 +197,17 @@ class UserServiceUnitTest {
                 .deleteById(user.getId());
     }
 
+    @Test
+    void deleteEvictsCascadedItemsTest() {
+        when(itemRepository.findIdsDeletedWithUser(user.getId()))
+                .thenReturn(List.of(3L, 7L));
+        when(entityManagerFactory.getCache())
+                .thenReturn(cache);
+        userService.delete(user.getId());
+        verify(cache).evict(Item.class, 3L);
+        verify(cache).evict(Item.class, 7L);
+    }
+
 
     @Test
     void getAllEmptyTest() {
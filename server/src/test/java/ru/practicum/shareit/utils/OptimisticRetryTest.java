@@ -0,0 +1,60 @@
+package ru.practicum.shareit.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.error.ConflictException;
+import ru.practicum.shareit.error.PreconditionFailedException;
+import ru.practicum.shareit.error.ValidationException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+
+class OptimisticRetryTest {
+    private final OptimisticRetry retry = new OptimisticRetry(mock(PlatformTransactionManager.class), 3);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void retriesUntilSuccessTest() {
+        var result = retry.execute(null, () -> {
+            if (calls.incrementAndGet() < 3)
+                throw new ObjectOptimisticLockingFailureException("Item", 1L);
+            return "saved";
+        });
+        assertThat(result, equalTo("saved"));
+        assertThat(calls.get(), equalTo(3));
+    }
+
+    @Test
+    void conflictAfterLastAttemptTest() {
+        assertThrows(ConflictException.class, () -> retry.execute(null, () -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Item", 1L);
+        }));
+        assertThat(calls.get(), equalTo(3));
+    }
+
+    @Test
+    void noRetryWithExpectedVersionTest() {
+        assertThrows(PreconditionFailedException.class, () -> retry.execute(1L, () -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Item", 1L);
+        }));
+        assertThat(calls.get(), equalTo(1));
+    }
+
+    @Test
+    void parseIfMatchTest() {
+        assertThat(ETags.parseIfMatch("\"7\""), equalTo(7L));
+        assertThat(ETags.parseIfMatch("7"), equalTo(7L));
+        assertThat(ETags.parseIfMatch("*"), nullValue());
+        assertThat(ETags.parseIfMatch(null), nullValue());
+        assertThrows(ValidationException.class, () -> ETags.parseIfMatch("W/\"7\""));
+    }
+}
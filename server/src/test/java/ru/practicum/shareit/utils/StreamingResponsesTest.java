@@ -0,0 +1,106 @@
+package ru.practicum.shareit.utils;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.booking.dto.BookingSavingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+        "shareit.stream.unpaged=true",
+        "shareit.stream.fetch-size=2",
+        "shareit.item.search.mode=jdbc"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class StreamingResponsesTest {
+    private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private final MockMvc mvc;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private UserDto owner;
+    private UserDto booker;
+
+    @BeforeAll
+    void seed() {
+        owner = userService.save(new UserDto(null, "Lora", "lora.stream@mail.com"));
+        booker = userService.save(new UserDto(null, "Mike", "mike.stream@mail.com"));
+        for (int i = 0; i < 5; i++) {
+            var item = itemService.save(new ItemDto(null, "Pen " + i, "Blue pen", true, null, null), null,
+                    owner.getId());
+            bookingService.save(BookingSavingDto.builder()
+                    .start(now().plusDays(i + 1))
+                    .end(now().plusDays(i + 2))
+                    .itemId(item.getId())
+                    .build(), itemService.get(item.getId(), owner.getId()), booker.getId());
+        }
+    }
+
+    @Test
+    void streamBookingsTest() throws Exception {
+        performStreamed(get("/bookings").header(HEADER_SHARER_USER_ID, booker.getId()))
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].item.name", equalTo("Pen 4")))
+                .andExpect(jsonPath("$[0].booker.email", equalTo("mike.stream@mail.com")))
+                .andExpect(jsonPath("$[0].start", notNullValue()));
+        performStreamed(get("/bookings/owner").header(HEADER_SHARER_USER_ID, owner.getId())
+                .param("state", "FUTURE"))
+                .andExpect(jsonPath("$", hasSize(5)));
+    }
+
+    @Test
+    void streamItemsTest() throws Exception {
+        performStreamed(get("/items").header(HEADER_SHARER_USER_ID, owner.getId()))
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].name", equalTo("Pen 0")))
+                .andExpect(jsonPath("$[0].nextBooking.bookerId", equalTo(booker.getId().intValue())))
+                .andExpect(jsonPath("$[0].comments", empty()));
+        performStreamed(get("/items/search").param("text", "PEN"))
+                .andExpect(jsonPath("$[*].name", contains("Pen 0", "Pen 1", "Pen 2", "Pen 3", "Pen 4")));
+        performStreamed(get("/items/search").param("text", " "))
+                .andExpect(jsonPath("$", empty()));
+    }
+
+    @Test
+    void errorsBeforeStreamTest() throws Exception {
+        mvc.perform(get("/bookings").header(HEADER_SHARER_USER_ID, 999))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/bookings").header(HEADER_SHARER_USER_ID, booker.getId()).param("state", "UNKNOWN"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void pagedRequestsAreNotStreamedTest() throws Exception {
+        mvc.perform(get("/bookings").header(HEADER_SHARER_USER_ID, booker.getId())
+                        .param("from", "0")
+                        .param("size", "2"))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    private ResultActions performStreamed(RequestBuilder requestBuilder) throws Exception {
+        return mvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON));
+    }
+}